@@ -0,0 +1,80 @@
+package com.sm.mancala.benchmark;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.player.Player;
+import com.sm.mancala.domain.player.PlayersGroup;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Domain model hot paths on the standard board with a small and a huge number of stones.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final int PLAYERS_NUMBER = 2;
+
+    private static final int CUPS_NUMBER = 6;
+
+    @Param({"4", "100000"})
+    private int stonesPerCup;
+
+    private PlayersGroup playersGroup;
+
+    private Board board;
+
+    private BoardState initialState;
+
+    private Player player;
+
+    private int seat;
+
+    private int cupBoardIndex;
+
+    @Setup
+    public void setUp() {
+        playersGroup = PlayersGroup.createPlayersGroup(PLAYERS_NUMBER);
+        board = Board.createBoardForPlayers(playersGroup, CUPS_NUMBER, stonesPerCup);
+        initialState = board.toState();
+        player = playersGroup.getActivePlayer();
+        seat = playersGroup.getActivePlayerIndex();
+        cupBoardIndex = player.getCupByNumber(1).getBoardIndex();
+    }
+
+    /**
+     * A move as the game service plays it, with the turn and end-of-game rules. The board is
+     * reset to the initial position before each move, which is included in the measurement.
+     */
+    @Benchmark
+    public int playMove() {
+        board.applyState(initialState);
+        return board.playMove(player, seat, cupBoardIndex);
+    }
+
+    @Benchmark
+    public Board createBoardForPlayers() {
+        final PlayersGroup group = PlayersGroup.createPlayersGroup(PLAYERS_NUMBER);
+        return Board.createBoardForPlayers(group, CUPS_NUMBER, stonesPerCup);
+    }
+
+    @Benchmark
+    public boolean hasFinishedPlayer() {
+        return playersGroup.hasFinishedPlayer();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sm.mancala.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.web.model.GameDto;
+import java.util.concurrent.TimeUnit;
+import org.openapitools.jackson.nullable.JsonNullableModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping of a game to its DTO and the JSON serialization of the response body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameDtoBenchmark {
+
+    private Game game;
+
+    private GameDto gameDto;
+
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        game = Game.createGame(playersGroup, Board.createBoardForPlayers(playersGroup, 6, 4));
+        game.setId(1L);
+        gameDto = game.toDto();
+        objectMapper = new ObjectMapper().registerModule(new JsonNullableModule());
+    }
+
+    @Benchmark
+    public GameDto toDto() {
+        return game.toDto();
+    }
+
+    @Benchmark
+    public byte[] serializeGameDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(gameDto);
+    }
+
+    @Benchmark
+    public byte[] toDtoAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(game.toDto());
+    }
+}
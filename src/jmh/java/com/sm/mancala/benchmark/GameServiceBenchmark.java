@@ -0,0 +1,119 @@
+package com.sm.mancala.benchmark;
+
+import com.sm.mancala.MancalaApplication;
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameMoveResultData;
+import com.sm.mancala.domain.player.Player;
+import com.sm.mancala.service.GameService;
+import com.sm.mancala.web.model.GameMove;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * A move through the service: loading the game, applying the move and saving it, against the
+ * in-memory H2 database of the test configuration. Every iteration plays the moves of a pool of
+ * games created before it, each game to the end by always moving from the first non-empty cup;
+ * the games are identical, so the moves are worked out once on the engine. Neither creating the
+ * games nor choosing the moves is measured, and setup runs per iteration rather than around every
+ * move of a few microseconds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameServiceBenchmark {
+
+    private static final int PLAYERS_NUMBER = 2;
+
+    private static final int STONES_PER_CUP = 4;
+
+    // enough moves for an iteration, running out of them fails the benchmark
+    private static final int GAMES_PER_ITERATION = 5000;
+
+    private ConfigurableApplicationContext context;
+
+    private GameService gameService;
+
+    // seat and cup number of every move of a game
+    private int[][] gameScript;
+
+    private GameMove[] moves;
+
+    private int nextMoveIndex;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(MancalaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        gameService = context.getBean(GameService.class);
+        gameScript = playFirstCups(
+                gameService.createGame(PLAYERS_NUMBER, STONES_PER_CUP, false).toState()
+        );
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareMoves() {
+        final List<Game> games = gameService.createGames(
+                PLAYERS_NUMBER,
+                STONES_PER_CUP,
+                false,
+                GAMES_PER_ITERATION
+        );
+        final List<GameMove> gameMoves = new ArrayList<>(games.size() * gameScript.length);
+        for (final Game game : games) {
+            final List<Player> players = game.getPlayersGroup().getPlayers();
+            for (final int[] move : gameScript) {
+                gameMoves.add(new GameMove()
+                        .gameId(game.getId())
+                        .playerId(players.get(move[0]).getId())
+                        .cupNumber(move[1]));
+            }
+        }
+        moves = gameMoves.toArray(GameMove[]::new);
+        nextMoveIndex = 0;
+    }
+
+    @Benchmark
+    public GameMoveResultData processMove() {
+        if (nextMoveIndex == moves.length) {
+            throw new IllegalStateException("All prepared moves played, raise GAMES_PER_ITERATION");
+        }
+        return gameService.processMove(moves[nextMoveIndex++]);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    private static int[][] playFirstCups(BoardState state) {
+        final List<int[]> script = new ArrayList<>();
+        while (!state.isGameOver()) {
+            final int seat = state.getActiveSeat();
+            final int cupNumber = state.legalCupNumbers(seat)[0];
+            script.add(new int[]{seat, cupNumber});
+            state.playMove(state.cupIndex(seat, cupNumber));
+        }
+        return script.toArray(int[][]::new);
+    }
+}
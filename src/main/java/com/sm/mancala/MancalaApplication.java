@@ -1,6 +1,9 @@
 package com.sm.mancala;
 
 import com.sm.mancala.properties.GameProperties;
+import com.sm.mancala.simulation.Perft;
+import com.sm.mancala.simulation.SelfPlaySimulator;
+import java.util.Arrays;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,7 +12,20 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 @EnableConfigurationProperties(GameProperties.class)
 public class MancalaApplication {
 
-    public static void main(String[] args) {
+    private static final String SIMULATE_COMMAND = "simulate";
+
+    private static final String PERFT_COMMAND = "perft";
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 0 && SIMULATE_COMMAND.equals(args[0])) {
+            // self-play runs without the Spring context, so neither web nor database is needed
+            SelfPlaySimulator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && PERFT_COMMAND.equals(args[0])) {
+            Perft.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SpringApplication.run(MancalaApplication.class, args);
     }
 
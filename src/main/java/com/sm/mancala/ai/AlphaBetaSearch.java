@@ -0,0 +1,105 @@
+package com.sm.mancala.ai;
+
+import static com.sm.mancala.ai.Evaluation.INFINITE_SCORE;
+
+import com.sm.mancala.domain.engine.BoardState;
+
+/**
+ * Minimax search with alpha-beta pruning and iterative deepening under a time budget.
+ *
+ * <p>The search runs on {@link BoardState} copies: one preallocated state and move buffer per
+ * ply, so no objects are created while visiting nodes. The seat to move at the root maximizes
+ * its {@link Evaluation}, every other seat minimizes it. Extra turns are handled naturally as the
+ * same seat stays active in the child position.
+ *
+ * <p>Instances are not thread-safe, a new one should be used per search. A
+ * {@link TranspositionTable} passed to the constructor may be shared between searches.
+ */
+public final class AlphaBetaSearch {
+
+    private final int maxDepth;
+
+    private final TranspositionTable table;
+
+    public AlphaBetaSearch(int maxDepth) {
+        this(maxDepth, null);
+    }
+
+    public AlphaBetaSearch(int maxDepth, TranspositionTable table) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Max search depth must be positive: " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        this.table = table;
+    }
+
+    public SearchResult search(BoardState root, long timeBudgetMillis) {
+        if (root.isGameOver()) {
+            throw new IllegalArgumentException("Game is over, there is no move to search for");
+        }
+        final long deadlineNanos = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        final SearchWorker.SearchControl control = () -> System.nanoTime() - deadlineNanos > 0;
+        final SearchWorker worker = new SearchWorker(root, maxDepth, table);
+        if (table != null) {
+            table.newSearch();
+        }
+        final int rootSeat = root.getActiveSeat();
+
+        final int[] rootMoves = new int[root.getCupsNumber()];
+        final int rootMovesNumber = MoveOrdering.orderMoves(root, MoveOrdering.NO_MOVE, rootMoves);
+        final BoardState child = root.copy();
+
+        int bestCupIndex = rootMoves[0];
+        int bestScore = Evaluation.evaluate(root, rootSeat);
+        int completedDepth = 0;
+        long nodes = 0;
+        if (rootMovesNumber == 1) {
+            return toResult(root, bestCupIndex, bestScore, completedDepth, nodes);
+        }
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            MoveOrdering.orderMoves(root, bestCupIndex, rootMoves);
+
+            int iterationBestCupIndex = MoveOrdering.NO_MOVE;
+            int alpha = -INFINITE_SCORE;
+            boolean aborted = false;
+            for (int i = 0; i < rootMovesNumber && !aborted; i++) {
+                child.copyFrom(root);
+                child.playMove(rootMoves[i]);
+
+                final int score = worker.search(child, depth - 1, alpha, INFINITE_SCORE, control);
+                aborted = worker.isAborted();
+                if (!aborted && score > alpha) {
+                    alpha = score;
+                    iterationBestCupIndex = rootMoves[i];
+                }
+            }
+            nodes += worker.pollNodes();
+            final boolean depthLimitReached = worker.pollDepthLimitReached();
+            if (aborted) {
+                break;
+            }
+
+            bestCupIndex = iterationBestCupIndex;
+            bestScore = alpha;
+            completedDepth = depth;
+            if (!depthLimitReached) {
+                // every line reached the end of the game, deeper iterations add nothing
+                break;
+            }
+        }
+
+        return toResult(root, bestCupIndex, bestScore, completedDepth, nodes);
+    }
+
+    static SearchResult toResult(
+            BoardState root,
+            int cupIndex,
+            int score,
+            int depth,
+            long nodes
+    ) {
+        final int cupNumber = cupIndex - root.cupIndex(root.getActiveSeat(), 1) + 1;
+        return new SearchResult(cupNumber, score, depth, nodes);
+    }
+}
@@ -0,0 +1,180 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact values of the standard 2x6 board positions with few stones left in the cups, read from a
+ * memory-mapped file written by {@link EndgameTablebaseGenerator}.
+ *
+ * <p>Mancala contents do not change how the rest of the game goes, so a position is identified by
+ * its 12 cups only, listed from the side to move: its own cups, then the opponent's ones. The
+ * stored value is the number of stones the side to move will still put into its mancala minus the
+ * ones the opponent will, under perfect play of both. Positions are ordered by the total number of
+ * stones and ranked within the same total with the combinatorial number system, so the file holds
+ * one byte per position and nothing else besides a short header.
+ */
+public final class EndgameTablebase {
+
+    public static final int PLAYERS_NUMBER = 2;
+
+    public static final int CUPS_NUMBER = 6;
+
+    /**
+     * Largest supported stone count: the file stays below 2 GB and values fit into a byte.
+     */
+    public static final int MAX_STONES = 24;
+
+    static final int MAGIC = 0x4D544231;
+
+    static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    static final int CUPS = PLAYERS_NUMBER * CUPS_NUMBER;
+
+    private static final long[][] BINOMIALS = new long[MAX_STONES + CUPS + 1][CUPS + 1];
+
+    static {
+        for (int n = 0; n < BINOMIALS.length; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, CUPS); k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private final ByteBuffer values;
+
+    private final int maxStones;
+
+    EndgameTablebase(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+                || buffer.getInt(Integer.BYTES) != CUPS_NUMBER) {
+            throw new IllegalArgumentException("Not an endgame tablebase of a 2x6 board");
+        }
+        this.maxStones = buffer.getInt(2 * Integer.BYTES);
+        if (maxStones < 0 || maxStones > MAX_STONES
+                || buffer.capacity() != HEADER_BYTES + positions(maxStones)) {
+            throw new IllegalArgumentException("Endgame tablebase is truncated or corrupted");
+        }
+        this.values = buffer.slice(HEADER_BYTES, (int) positions(maxStones));
+    }
+
+    public static EndgameTablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new EndgameTablebase(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+            );
+        }
+    }
+
+    public int getMaxStones() {
+        return maxStones;
+    }
+
+    public boolean covers(BoardState state) {
+        return state.getPlayersNumber() == PLAYERS_NUMBER
+                && state.getCupsNumber() == CUPS_NUMBER
+                && state.getCupStones(0) + state.getCupStones(1) <= maxStones;
+    }
+
+    /**
+     * Stones the side to move will still gain over the opponent with perfect play.
+     */
+    public int value(BoardState state) {
+        final int seat = state.getActiveSeat();
+        final int other = 1 - seat;
+        long rank = 0;
+        int remaining = state.getCupStones(0) + state.getCupStones(1);
+        final int stones = remaining;
+        for (int i = 0; i < CUPS - 1; i++) {
+            final int cupStones = i < CUPS_NUMBER
+                    ? state.getStones(state.cupIndex(seat, i + 1))
+                    : state.getStones(state.cupIndex(other, i - CUPS_NUMBER + 1));
+            rank += countBefore(remaining, CUPS - 1 - i, cupStones);
+            remaining -= cupStones;
+        }
+        return values.get((int) (positions(stones - 1) + rank));
+    }
+
+    /**
+     * Picks the move of the side to move with the best final outcome.
+     *
+     * @return result with the final score of the game, no search is done
+     */
+    public SearchResult solve(BoardState state) {
+        final int seat = state.getActiveSeat();
+        final int currentDifference = Evaluation.mancalaDifference(state, seat);
+        final BoardState child = state.copy();
+
+        int bestCupNumber = 0;
+        int bestOutcome = Integer.MIN_VALUE;
+        for (final int cupNumber : state.legalCupNumbers(seat)) {
+            child.copyFrom(state);
+            child.playMove(child.cupIndex(seat, cupNumber));
+            int outcome = Evaluation.mancalaDifference(child, seat) - currentDifference;
+            if (!child.isGameOver()) {
+                outcome += child.getActiveSeat() == seat ? value(child) : -value(child);
+            }
+            if (outcome > bestOutcome) {
+                bestOutcome = outcome;
+                bestCupNumber = cupNumber;
+            }
+        }
+        return new SearchResult(
+                bestCupNumber, Evaluation.finalScore(currentDifference + bestOutcome), 0, 0
+        );
+    }
+
+    /**
+     * Number of positions with at most {@code stones} stones in the cups.
+     */
+    static long positions(int stones) {
+        return stones < 0 ? 0 : BINOMIALS[stones + CUPS][CUPS];
+    }
+
+    /**
+     * Rank of the cups among the positions with the same number of stones; the cups are listed
+     * from the side to move.
+     */
+    static long rank(int[] cups) {
+        int remaining = 0;
+        for (final int cupStones : cups) {
+            remaining += cupStones;
+        }
+        long rank = 0;
+        for (int i = 0; i < CUPS - 1; i++) {
+            rank += countBefore(remaining, CUPS - 1 - i, cups[i]);
+            remaining -= cups[i];
+        }
+        return rank;
+    }
+
+    /**
+     * Inverse of {@link #rank(int[])}.
+     */
+    static void unrank(int stones, long rank, int[] cups) {
+        int remaining = stones;
+        for (int i = 0; i < CUPS - 1; i++) {
+            final int cupsAfter = CUPS - 1 - i;
+            int cupStones = 0;
+            while (cupStones < remaining
+                    && countBefore(remaining, cupsAfter, cupStones + 1) <= rank) {
+                cupStones++;
+            }
+            rank -= countBefore(remaining, cupsAfter, cupStones);
+            cups[i] = cupStones;
+            remaining -= cupStones;
+        }
+        cups[CUPS - 1] = remaining;
+    }
+
+    // positions of the remaining stones where this cup holds fewer than cupStones of them
+    private static long countBefore(int remaining, int cupsAfter, int cupStones) {
+        return BINOMIALS[remaining + cupsAfter][cupsAfter]
+                - BINOMIALS[remaining - cupStones + cupsAfter][cupsAfter];
+    }
+}
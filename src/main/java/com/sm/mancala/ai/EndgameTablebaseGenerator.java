@@ -0,0 +1,162 @@
+package com.sm.mancala.ai;
+
+import static com.sm.mancala.ai.EndgameTablebase.CUPS;
+import static com.sm.mancala.ai.EndgameTablebase.CUPS_NUMBER;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Offline generator of the {@link EndgameTablebase} file, run as
+ * {@code java -cp target/classes com.sm.mancala.ai.EndgameTablebaseGenerator <file> <stones>}.
+ *
+ * <p>Values are computed by retrograde analysis, from finished games backwards, and the moves
+ * are played with {@link BoardState}, so the table follows exactly the rules of the game. No
+ * position can repeat: a move either puts stones out of play into a mancala, or only moves them
+ * further along the mover's own row. Positions are therefore solved by ascending number of stones
+ * and, within the same number, by descending sum of the stones' distances from the start of their
+ * rows, which guarantees every successor is already solved when a position is reached.
+ */
+public final class EndgameTablebaseGenerator {
+
+    private static final int OWN_MANCALA_INDEX = CUPS_NUMBER;
+
+    private static final int OTHER_MANCALA_INDEX = 2 * CUPS_NUMBER + 1;
+
+    private EndgameTablebaseGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: EndgameTablebaseGenerator <file> <max stones>");
+            System.exit(1);
+        }
+        final Path file = Path.of(args[0]);
+        final int maxStones = Integer.parseInt(args[1]);
+
+        final long startNanos = System.nanoTime();
+        generate(maxStones, file);
+        System.out.printf("%d positions with up to %d stones written to %s in %d ms%n",
+                EndgameTablebase.positions(maxStones), maxStones, file,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public static void generate(int maxStones, Path file) throws IOException {
+        final byte[] values = solve(maxStones);
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(EndgameTablebase.MAGIC);
+            out.writeInt(CUPS_NUMBER);
+            out.writeInt(maxStones);
+            out.write(values);
+        }
+    }
+
+    static byte[] solve(int maxStones) {
+        if (maxStones < 0 || maxStones > EndgameTablebase.MAX_STONES) {
+            throw new IllegalArgumentException("Stones must be between 0 and "
+                    + EndgameTablebase.MAX_STONES + ": " + maxStones);
+        }
+        final byte[] values = new byte[(int) EndgameTablebase.positions(maxStones)];
+        final int[] cups = new int[CUPS];
+        final int[] childCups = new int[CUPS];
+        final BoardState position = new BoardState(EndgameTablebase.PLAYERS_NUMBER, CUPS_NUMBER);
+        final BoardState child = position.copy();
+
+        for (int stones = 0; stones <= maxStones; stones++) {
+            final int offset = (int) EndgameTablebase.positions(stones - 1);
+            final int[] order = orderByDescendingDistance(stones);
+            for (final int rank : order) {
+                EndgameTablebase.unrank(stones, rank, cups);
+                values[offset + rank] = (byte) solvePosition(
+                        cups, childCups, position, child, values
+                );
+            }
+        }
+        return values;
+    }
+
+    private static int solvePosition(
+            int[] cups,
+            int[] childCups,
+            BoardState position,
+            BoardState child,
+            byte[] values
+    ) {
+        for (int i = 0; i < CUPS_NUMBER; i++) {
+            position.setStones(i, cups[i]);
+            position.setStones(OWN_MANCALA_INDEX + 1 + i, cups[CUPS_NUMBER + i]);
+        }
+        position.setStones(OWN_MANCALA_INDEX, 0);
+        position.setStones(OTHER_MANCALA_INDEX, 0);
+        position.setActiveSeat(0);
+        if (position.isGameOver()) {
+            return position.getCupStones(0) - position.getCupStones(1);
+        }
+
+        int best = Integer.MIN_VALUE;
+        for (int cupIndex = 0; cupIndex < CUPS_NUMBER; cupIndex++) {
+            if (cups[cupIndex] == 0) {
+                continue;
+            }
+            child.copyFrom(position);
+            child.playMove(cupIndex);
+            int outcome = child.getStones(OWN_MANCALA_INDEX)
+                    - child.getStones(OTHER_MANCALA_INDEX);
+            if (!child.isGameOver()) {
+                final boolean sameSeat = child.getActiveSeat() == 0;
+                final int childValue = values[index(child, sameSeat, childCups)];
+                outcome += sameSeat ? childValue : -childValue;
+            }
+            best = Math.max(best, outcome);
+        }
+        return best;
+    }
+
+    // index of the child position seen from its side to move
+    private static int index(BoardState child, boolean sameSeat, int[] scratch) {
+        final int ownFirst = sameSeat ? 0 : OWN_MANCALA_INDEX + 1;
+        final int otherFirst = sameSeat ? OWN_MANCALA_INDEX + 1 : 0;
+        int stones = 0;
+        for (int i = 0; i < CUPS_NUMBER; i++) {
+            scratch[i] = child.getStones(ownFirst + i);
+            scratch[CUPS_NUMBER + i] = child.getStones(otherFirst + i);
+            stones += scratch[i] + scratch[CUPS_NUMBER + i];
+        }
+        return (int) (EndgameTablebase.positions(stones - 1) + EndgameTablebase.rank(scratch));
+    }
+
+    /**
+     * Ranks of the positions with the given number of stones, sorted by descending sum of the
+     * stones' distances from the first cup of their row.
+     */
+    private static int[] orderByDescendingDistance(int stones) {
+        final int positions = (int) (EndgameTablebase.positions(stones)
+                - EndgameTablebase.positions(stones - 1));
+        final int maxDistance = stones * (CUPS_NUMBER - 1);
+        final int[] distances = new int[positions];
+        final int[] bucketStarts = new int[maxDistance + 2];
+        final int[] cups = new int[CUPS];
+        for (int rank = 0; rank < positions; rank++) {
+            EndgameTablebase.unrank(stones, rank, cups);
+            int distance = 0;
+            for (int i = 0; i < CUPS; i++) {
+                distance += cups[i] * (i % CUPS_NUMBER);
+            }
+            distances[rank] = distance;
+            bucketStarts[maxDistance - distance + 1]++;
+        }
+        for (int i = 1; i < bucketStarts.length; i++) {
+            bucketStarts[i] += bucketStarts[i - 1];
+        }
+        final int[] order = new int[positions];
+        for (int rank = 0; rank < positions; rank++) {
+            order[bucketStarts[maxDistance - distances[rank]]++] = rank;
+        }
+        return order;
+    }
+}
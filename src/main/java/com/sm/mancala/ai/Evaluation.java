@@ -0,0 +1,46 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+
+/**
+ * Static evaluation of positions from the point of view of one seat: the difference between the
+ * seat's mancala and the best mancala of the other seats. Finished games are scored beyond
+ * {@link #TERMINAL_SCORE}, so a sure win is always preferred to any heuristic advantage.
+ */
+public final class Evaluation {
+
+    public static final int TERMINAL_SCORE = 10_000;
+
+    public static final int INFINITE_SCORE = Integer.MAX_VALUE / 2;
+
+    private Evaluation() {
+    }
+
+    public static int evaluate(BoardState state, int seat) {
+        final int difference = mancalaDifference(state, seat);
+        return state.isGameOver() ? finalScore(difference) : difference;
+    }
+
+    /**
+     * Score of a finished game given the final mancala difference of the seat.
+     */
+    public static int finalScore(int difference) {
+        if (difference > 0) {
+            return TERMINAL_SCORE + difference;
+        }
+        return difference < 0 ? -TERMINAL_SCORE + difference : 0;
+    }
+
+    public static int mancalaDifference(BoardState state, int seat) {
+        int bestOtherMancala = 0;
+        for (int other = 0; other < state.getPlayersNumber(); other++) {
+            if (other != seat) {
+                bestOtherMancala = Math.max(
+                        bestOtherMancala,
+                        state.getStones(state.mancalaIndex(other))
+                );
+            }
+        }
+        return state.getStones(state.mancalaIndex(seat)) - bestOtherMancala;
+    }
+}
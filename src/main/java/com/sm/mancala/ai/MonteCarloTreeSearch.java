@@ -0,0 +1,315 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Monte Carlo tree search with UCT selection and random playouts on {@link BoardState}.
+ *
+ * <p>The search is root-parallel: every worker grows its own tree with its own random generator,
+ * so the hot loop shares nothing. Every {@value #MERGE_INTERVAL} playouts a worker adds what its
+ * root moves gained since the last merge to the shared statistics, which also account the
+ * playout budget. The move with most merged visits is chosen.
+ *
+ * <p>Rewards are counted in half points for the seat that made the move into a node: 2 for a
+ * win, 1 for a shared first place and 0 otherwise. The result reports the expected reward of the
+ * chosen move in per mille as its score, the deepest tree level reached as depth and the number
+ * of playouts as nodes.
+ */
+public final class MonteCarloTreeSearch {
+
+    static final int MERGE_INTERVAL = 64;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private static final int WIN_REWARD = 2;
+
+    private static final int NO_SEAT = -1;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Search on the calling thread only.
+     */
+    public MonteCarloTreeSearch() {
+        this(null);
+    }
+
+    /**
+     * Search with one worker per thread of the pool.
+     */
+    public MonteCarloTreeSearch(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @param maxPlayouts playouts budget, not limited when {@code 0}
+     */
+    public SearchResult search(BoardState root, long timeBudgetMillis, long maxPlayouts) {
+        if (root.isGameOver()) {
+            throw new IllegalArgumentException("Game is over, there is no move to search for");
+        }
+        final int seat = root.getActiveSeat();
+        final int[] rootCupNumbers = root.legalCupNumbers(seat);
+        if (rootCupNumbers.length == 1) {
+            return new SearchResult(rootCupNumbers[0], 0, 0, 0);
+        }
+
+        final SharedStatistics shared = new SharedStatistics(
+                rootCupNumbers.length,
+                System.nanoTime() + timeBudgetMillis * 1_000_000L,
+                maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE
+        );
+        if (pool == null) {
+            new Worker(root, rootCupNumbers, shared).run();
+        } else {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < pool.getParallelism(); i++) {
+                tasks.add(pool.submit(new Worker(root, rootCupNumbers, shared)));
+            }
+            tasks.forEach(ForkJoinTask::join);
+        }
+
+        int best = 0;
+        for (int i = 1; i < rootCupNumbers.length; i++) {
+            if (shared.visits.get(i) > shared.visits.get(best)) {
+                best = i;
+            }
+        }
+        final long visits = shared.visits.get(best);
+        final int score = visits == 0
+                ? 0
+                : (int) (shared.rewards.get(best) * 1000 / (WIN_REWARD * visits));
+        return new SearchResult(
+                rootCupNumbers[best], score, shared.depth.get(), shared.playouts.get()
+        );
+    }
+
+    /**
+     * Half points {@code seat} gets for the finished game.
+     */
+    static int reward(BoardState state, int seat) {
+        final int stones = state.getStones(state.mancalaIndex(seat));
+        boolean shared = false;
+        for (int other = 0; other < state.getPlayersNumber(); other++) {
+            if (other == seat) {
+                continue;
+            }
+            final int otherStones = state.getStones(state.mancalaIndex(other));
+            if (otherStones > stones) {
+                return 0;
+            }
+            shared |= otherStones == stones;
+        }
+        return shared ? WIN_REWARD / 2 : WIN_REWARD;
+    }
+
+    /**
+     * Statistics of the root moves merged from all workers, and the budget they share.
+     */
+    private static final class SharedStatistics {
+
+        private final AtomicLongArray visits;
+
+        private final AtomicLongArray rewards;
+
+        private final AtomicLong claimedPlayouts = new AtomicLong();
+
+        private final AtomicLong playouts = new AtomicLong();
+
+        private final AtomicInteger depth = new AtomicInteger();
+
+        private final long deadlineNanos;
+
+        private final long maxPlayouts;
+
+        private SharedStatistics(int rootMovesNumber, long deadlineNanos, long maxPlayouts) {
+            this.visits = new AtomicLongArray(rootMovesNumber);
+            this.rewards = new AtomicLongArray(rootMovesNumber);
+            this.deadlineNanos = deadlineNanos;
+            this.maxPlayouts = maxPlayouts;
+        }
+
+        /**
+         * @return number of playouts the worker may run before the next merge
+         */
+        private int claimBatch() {
+            if (System.nanoTime() - deadlineNanos > 0) {
+                return 0;
+            }
+            final long claimed = claimedPlayouts.getAndAdd(MERGE_INTERVAL);
+            return (int) Math.max(0, Math.min(MERGE_INTERVAL, maxPlayouts - claimed));
+        }
+    }
+
+    private static final class Node {
+
+        private final int cupIndex;
+
+        private final int moverSeat;
+
+        private final int[] untriedMoves;
+
+        private int untriedMovesNumber;
+
+        private final List<Node> children;
+
+        private long visits;
+
+        private long rewards;
+
+        private Node(int cupIndex, int moverSeat, BoardState state) {
+            this.cupIndex = cupIndex;
+            this.moverSeat = moverSeat;
+            if (state.isGameOver()) {
+                this.untriedMoves = new int[0];
+            } else {
+                final int[] cupNumbers = state.legalCupNumbers(state.getActiveSeat());
+                this.untriedMoves = new int[cupNumbers.length];
+                for (int i = 0; i < cupNumbers.length; i++) {
+                    untriedMoves[i] = state.cupIndex(state.getActiveSeat(), cupNumbers[i]);
+                }
+            }
+            this.untriedMovesNumber = untriedMoves.length;
+            this.children = new ArrayList<>(untriedMoves.length);
+        }
+
+        private Node selectChild() {
+            final double logVisits = Math.log(visits);
+            Node best = null;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (final Node child : children) {
+                if (child.visits == 0) {
+                    return child;
+                }
+                final double value = child.rewards / (double) (WIN_REWARD * child.visits)
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final BoardState root;
+
+        private final Node rootNode;
+
+        private final SharedStatistics shared;
+
+        private final BoardState state;
+
+        private final List<Node> path = new ArrayList<>();
+
+        private final long[] mergedVisits;
+
+        private final long[] mergedRewards;
+
+        private SplittableRandom random;
+
+        private int maxDepth;
+
+        private Worker(BoardState root, int[] rootCupNumbers, SharedStatistics shared) {
+            this.root = root;
+            this.shared = shared;
+            this.state = root.copy();
+            this.rootNode = new Node(MoveOrdering.NO_MOVE, NO_SEAT, root);
+            // root children are created upfront in the order of the shared statistics
+            final int seat = root.getActiveSeat();
+            for (final int cupNumber : rootCupNumbers) {
+                final int cupIndex = root.cupIndex(seat, cupNumber);
+                state.copyFrom(root);
+                state.playMove(cupIndex);
+                rootNode.children.add(new Node(cupIndex, seat, state));
+            }
+            rootNode.untriedMovesNumber = 0;
+            this.mergedVisits = new long[rootCupNumbers.length];
+            this.mergedRewards = new long[rootCupNumbers.length];
+        }
+
+        @Override
+        public void run() {
+            // created on the thread that uses it
+            random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+            int batch;
+            while ((batch = shared.claimBatch()) > 0) {
+                for (int i = 0; i < batch; i++) {
+                    playout();
+                }
+                merge(batch);
+            }
+        }
+
+        private void playout() {
+            state.copyFrom(root);
+            path.clear();
+            Node node = rootNode;
+            path.add(node);
+
+            // selection
+            while (node.untriedMovesNumber == 0 && !node.children.isEmpty()) {
+                node = node.selectChild();
+                state.playMove(node.cupIndex);
+                path.add(node);
+            }
+            // expansion
+            if (node.untriedMovesNumber > 0) {
+                final int i = random.nextInt(node.untriedMovesNumber);
+                final int cupIndex = node.untriedMoves[i];
+                node.untriedMoves[i] = node.untriedMoves[--node.untriedMovesNumber];
+                final int seat = state.getActiveSeat();
+                state.playMove(cupIndex);
+                final Node child = new Node(cupIndex, seat, state);
+                node.children.add(child);
+                node = child;
+                path.add(node);
+            }
+            maxDepth = Math.max(maxDepth, path.size() - 1);
+            // simulation
+            while (!state.isGameOver()) {
+                state.playMove(randomMove());
+            }
+            // backpropagation, the root has no mover
+            for (int i = path.size() - 1; i >= 0; i--) {
+                final Node visited = path.get(i);
+                visited.visits++;
+                if (visited.moverSeat != NO_SEAT) {
+                    visited.rewards += reward(state, visited.moverSeat);
+                }
+            }
+        }
+
+        private int randomMove() {
+            final int seat = state.getActiveSeat();
+            long mask = state.legalMovesMask(seat);
+            for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+                mask &= mask - 1;
+            }
+            return state.cupIndex(seat, Long.numberOfTrailingZeros(mask) + 1);
+        }
+
+        private void merge(int batch) {
+            for (int i = 0; i < mergedVisits.length; i++) {
+                final Node child = rootNode.children.get(i);
+                shared.visits.addAndGet(i, child.visits - mergedVisits[i]);
+                shared.rewards.addAndGet(i, child.rewards - mergedRewards[i]);
+                mergedVisits[i] = child.visits;
+                mergedRewards[i] = child.rewards;
+            }
+            shared.playouts.addAndGet(batch);
+            shared.depth.accumulateAndGet(maxDepth, Math::max);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+
+/**
+ * Orders legal moves so the most promising ones are searched first, which makes alpha-beta
+ * cut-offs happen earlier: the preferred move (e.g. the best move of the previous iteration)
+ * goes first, then moves that end in the own mancala and give an extra turn, then the rest.
+ * Within each group cups closer to the mancala come first.
+ */
+final class MoveOrdering {
+
+    static final int NO_MOVE = -1;
+
+    private MoveOrdering() {
+    }
+
+    /**
+     * Fills {@code moves} with board indices of the legal cups of the active seat.
+     *
+     * @return number of moves written
+     */
+    static int orderMoves(BoardState state, int preferredCupIndex, int[] moves) {
+        final int seat = state.getActiveSeat();
+        final int mancalaIndex = state.mancalaIndex(seat);
+        final int firstCupIndex = mancalaIndex - state.getCupsNumber();
+        final int sowablePitsNumber = state.getPitsNumber() - state.getPlayersNumber() + 1;
+
+        int count = 0;
+        // killer moves come from sibling positions and might belong to another seat
+        if (preferredCupIndex >= firstCupIndex && preferredCupIndex < mancalaIndex
+                && state.getStones(preferredCupIndex) != 0) {
+            moves[count++] = preferredCupIndex;
+        }
+        for (int cupIndex = mancalaIndex - 1; cupIndex >= firstCupIndex; cupIndex--) {
+            final int stones = state.getStones(cupIndex);
+            if (stones != 0 && cupIndex != preferredCupIndex
+                    && stones % sowablePitsNumber == mancalaIndex - cupIndex) {
+                moves[count++] = cupIndex;
+            }
+        }
+        for (int cupIndex = mancalaIndex - 1; cupIndex >= firstCupIndex; cupIndex--) {
+            final int stones = state.getStones(cupIndex);
+            if (stones != 0 && cupIndex != preferredCupIndex
+                    && stones % sowablePitsNumber != mancalaIndex - cupIndex) {
+                moves[count++] = cupIndex;
+            }
+        }
+        return count;
+    }
+}
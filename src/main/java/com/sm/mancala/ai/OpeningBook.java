@@ -0,0 +1,127 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Best moves of opening positions searched offline by {@link OpeningBookBuilder}, kept in a
+ * direct buffer outside of the heap.
+ *
+ * <p>The file is an open-addressing hash table with linear probing, keyed by
+ * {@link BoardState#getPositionHash()}: a header with the capacity (a power of two, at least
+ * twice the number of entries) followed by {@value #ENTRY_BYTES}-byte entries of the key, the cup
+ * number, the search depth and the score. Key {@code 0} marks an empty slot. The position hash
+ * covers the board shape and the side to move, so one book serves any number of configurations.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x4D4F4231;
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    static final int ENTRY_BYTES = Long.BYTES + 2 * Byte.BYTES + Short.BYTES;
+
+    private static final int CUP_OFFSET = Long.BYTES;
+
+    private static final int DEPTH_OFFSET = CUP_OFFSET + 1;
+
+    private static final int SCORE_OFFSET = DEPTH_OFFSET + 1;
+
+    private final ByteBuffer entries;
+
+    private final int indexMask;
+
+    OpeningBook(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an opening book");
+        }
+        final int capacity = buffer.getInt(Integer.BYTES);
+        if (Integer.bitCount(capacity) != 1
+                || buffer.capacity() != HEADER_BYTES + (long) capacity * ENTRY_BYTES) {
+            throw new IllegalArgumentException("Opening book is truncated or corrupted");
+        }
+        this.entries = buffer.slice(HEADER_BYTES, capacity * ENTRY_BYTES);
+        this.indexMask = capacity - 1;
+    }
+
+    /**
+     * Reads the whole file into a direct buffer.
+     */
+    public static OpeningBook load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // reads until the buffer is full
+            }
+            return new OpeningBook(buffer.flip());
+        }
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * @return book move of the active seat, empty when the position is not in the book
+     */
+    public Optional<SearchResult> find(BoardState state) {
+        final long key = state.getPositionHash();
+        for (int slot = (int) key & indexMask; ; slot = (slot + 1) & indexMask) {
+            final int offset = slot * ENTRY_BYTES;
+            final long slotKey = entries.getLong(offset);
+            if (slotKey == 0) {
+                return Optional.empty();
+            }
+            if (slotKey == key) {
+                final int cupNumber = entries.get(offset + CUP_OFFSET) & 0xFF;
+                final int seat = state.getActiveSeat();
+                // a hash collision must not produce an illegal move
+                if (!state.isMoveAllowed(seat, state.cupIndex(seat, cupNumber))) {
+                    return Optional.empty();
+                }
+                return Optional.of(new SearchResult(
+                        cupNumber,
+                        entries.getShort(offset + SCORE_OFFSET),
+                        entries.get(offset + DEPTH_OFFSET) & 0xFF,
+                        0
+                ));
+            }
+        }
+    }
+
+    /**
+     * Lays the entries out as the book file expects them.
+     *
+     * @param entries book moves by position hash
+     */
+    static ByteBuffer encode(Map<Long, SearchResult> entries) {
+        final int capacity = Integer.highestOneBit(Math.max(entries.size(), 1) * 2 - 1) << 1;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + capacity * ENTRY_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, capacity);
+        final int mask = capacity - 1;
+        entries.forEach((key, result) -> {
+            if (key == 0) {
+                return;
+            }
+            int slot = (int) (long) key & mask;
+            while (buffer.getLong(HEADER_BYTES + slot * ENTRY_BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            final int offset = HEADER_BYTES + slot * ENTRY_BYTES;
+            buffer.putLong(offset, key);
+            buffer.put(offset + CUP_OFFSET, (byte) result.cupNumber());
+            buffer.put(offset + DEPTH_OFFSET, (byte) Math.min(result.depth(), 0xFF));
+            buffer.putShort(offset + SCORE_OFFSET, (short) Math.max(
+                    Short.MIN_VALUE, Math.min(Short.MAX_VALUE, result.score())
+            ));
+        });
+        return buffer;
+    }
+}
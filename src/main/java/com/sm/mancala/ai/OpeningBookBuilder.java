@@ -0,0 +1,124 @@
+package com.sm.mancala.ai;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline builder of the {@link OpeningBook} file, run as
+ * {@code java -cp target/classes com.sm.mancala.ai.OpeningBookBuilder <file> <plies> <depth>
+ * <players>x<cups>x<stones>...}.
+ *
+ * <p>Every position reachable within the given number of plies from the initial position of each
+ * listed configuration is searched to the given depth without a time limit. Positions are searched
+ * in parallel on the common pool and share one {@link TranspositionTable}.
+ */
+public final class OpeningBookBuilder {
+
+    private static final long TABLE_BYTES = 256L * 1024 * 1024;
+
+    // the depth, not the time, limits the searches
+    private static final long TIME_BUDGET_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private OpeningBookBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: OpeningBookBuilder <file> <plies> <depth> "
+                    + "<players>x<cups>x<stones>...");
+            System.exit(1);
+        }
+        final Path file = Path.of(args[0]);
+        final int plies = Integer.parseInt(args[1]);
+        final int depth = Integer.parseInt(args[2]);
+        final TranspositionTable table = new TranspositionTable(TABLE_BYTES);
+
+        final long startNanos = System.nanoTime();
+        final Map<Long, SearchResult> entries = new ConcurrentHashMap<>();
+        for (int i = 3; i < args.length; i++) {
+            final String[] shape = args[i].split("x");
+            if (shape.length != 3) {
+                throw new IllegalArgumentException("Configuration is not <players>x<cups>x<stones>: "
+                        + args[i]);
+            }
+            final BoardState initial = BoardState.createInitialState(
+                    Integer.parseInt(shape[0]),
+                    Integer.parseInt(shape[1]),
+                    Integer.parseInt(shape[2])
+            );
+            final int before = entries.size();
+            entries.putAll(build(initial, plies, depth, table));
+            System.out.printf("%s: %d positions%n", args[i], entries.size() - before);
+        }
+        write(entries, file);
+        System.out.printf("%d positions searched to depth %d written to %s in %d ms%n",
+                entries.size(), depth, file, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Searches the positions reachable from {@code initial} within {@code plies} moves.
+     *
+     * @param table table shared by the searches, may be {@code null}
+     * @return book moves by position hash
+     */
+    public static Map<Long, SearchResult> build(
+            BoardState initial,
+            int plies,
+            int depth,
+            TranspositionTable table
+    ) {
+        final Map<Long, SearchResult> entries = new ConcurrentHashMap<>();
+        positions(initial, plies).parallelStream().forEach(position -> entries.put(
+                position.getPositionHash(),
+                new AlphaBetaSearch(depth, table).search(position, TIME_BUDGET_MILLIS)
+        ));
+        return entries;
+    }
+
+    public static void write(Map<Long, SearchResult> entries, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final ByteBuffer buffer = OpeningBook.encode(entries);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Distinct positions not yet over, reached by fewer than {@code plies} moves.
+     */
+    static List<BoardState> positions(BoardState initial, int plies) {
+        final List<BoardState> positions = new ArrayList<>();
+        final Set<Long> seen = new HashSet<>();
+        List<BoardState> frontier = List.of(initial);
+        for (int ply = 0; ply < plies && !frontier.isEmpty(); ply++) {
+            final List<BoardState> next = new ArrayList<>();
+            for (final BoardState position : frontier) {
+                if (position.isGameOver() || !seen.add(position.getPositionHash())) {
+                    continue;
+                }
+                positions.add(position);
+                final int seat = position.getActiveSeat();
+                for (final int cupNumber : position.legalCupNumbers(seat)) {
+                    final BoardState child = position.copy();
+                    child.playMove(child.cupIndex(seat, cupNumber));
+                    next.add(child);
+                }
+            }
+            frontier = next;
+        }
+        return positions;
+    }
+}
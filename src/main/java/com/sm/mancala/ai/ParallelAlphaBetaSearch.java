@@ -0,0 +1,311 @@
+package com.sm.mancala.ai;
+
+import static com.sm.mancala.ai.Evaluation.INFINITE_SCORE;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Alpha-beta search with iterative deepening that splits the tree over a {@link ForkJoinPool}
+ * using the Young Brothers Wait scheme: at every split node the eldest (best ordered) child is
+ * searched first to narrow the window, then its younger brothers are searched in parallel.
+ * A brother that causes a cut-off stops the remaining ones.
+ *
+ * <p>Nodes closer than {@value #SPLIT_DEPTH} plies to the horizon are searched serially by a
+ * {@link SearchWorker} per pool thread, so splitting overhead is paid only near the root. The
+ * workers belong to the search and are dropped with it.
+ * The number of threads is bounded by the pool, which is owned by the caller. The workers may
+ * share a {@link TranspositionTable}, which needs no locking.
+ */
+public final class ParallelAlphaBetaSearch {
+
+    static final int SPLIT_DEPTH = 4;
+
+    private final ForkJoinPool pool;
+
+    private final int maxDepth;
+
+    private final TranspositionTable table;
+
+    public ParallelAlphaBetaSearch(ForkJoinPool pool, int maxDepth) {
+        this(pool, maxDepth, null);
+    }
+
+    public ParallelAlphaBetaSearch(ForkJoinPool pool, int maxDepth, TranspositionTable table) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Max search depth must be positive: " + maxDepth);
+        }
+        this.pool = pool;
+        this.maxDepth = maxDepth;
+        this.table = table;
+    }
+
+    public SearchResult search(BoardState root, long timeBudgetMillis) {
+        if (root.isGameOver()) {
+            throw new IllegalArgumentException("Game is over, there is no move to search for");
+        }
+        final SearchContext context = new SearchContext(
+                pool, root, maxDepth, table, timeBudgetMillis
+        );
+        if (table != null) {
+            table.newSearch();
+        }
+
+        final int[] rootMoves = new int[root.getCupsNumber()];
+        final int rootMovesNumber = MoveOrdering.orderMoves(root, MoveOrdering.NO_MOVE, rootMoves);
+
+        int bestCupIndex = rootMoves[0];
+        int bestScore = Evaluation.evaluate(root, root.getActiveSeat());
+        int completedDepth = 0;
+        if (rootMovesNumber == 1) {
+            return AlphaBetaSearch.toResult(root, bestCupIndex, bestScore, completedDepth, 0);
+        }
+
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            final SplitTask rootTask = new SplitTask(
+                    context, null, root.copy(), depth, -INFINITE_SCORE, INFINITE_SCORE, bestCupIndex
+            );
+            final int score = pool.invoke(rootTask);
+            if (context.stopped) {
+                // an iteration interrupted by the time budget is incomplete and discarded
+                break;
+            }
+
+            bestCupIndex = rootTask.bestCupIndex;
+            bestScore = score;
+            completedDepth = depth;
+            if (!context.depthLimitReached) {
+                // every line reached the end of the game, deeper iterations add nothing
+                break;
+            }
+            context.depthLimitReached = false;
+        }
+
+        return AlphaBetaSearch.toResult(
+                root, bestCupIndex, bestScore, completedDepth, context.nodes.sum()
+        );
+    }
+
+    /**
+     * State shared by all tasks of one search.
+     */
+    private static final class SearchContext {
+
+        private final int rootSeat;
+
+        private final long deadlineNanos;
+
+        private final LongAdder nodes = new LongAdder();
+
+        private final ForkJoinPool pool;
+
+        private final BoardState root;
+
+        private final int maxDepth;
+
+        private final TranspositionTable table;
+
+        // by pool index, each slot is used by the one pool thread with that index
+        private final AtomicReferenceArray<SearchWorker> workers;
+
+        // threads outside of the pool helping with a task they wait for
+        private final Map<Thread, SearchWorker> externalWorkers = new ConcurrentHashMap<>();
+
+        private volatile boolean stopped;
+
+        private volatile boolean depthLimitReached;
+
+        private SearchContext(
+                ForkJoinPool pool,
+                BoardState root,
+                int maxDepth,
+                TranspositionTable table,
+                long timeBudgetMillis
+        ) {
+            this.rootSeat = root.getActiveSeat();
+            this.deadlineNanos = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+            this.pool = pool;
+            this.root = root;
+            this.maxDepth = maxDepth;
+            this.table = table;
+            this.workers = new AtomicReferenceArray<>(pool.getParallelism());
+        }
+
+        private SearchWorker worker() {
+            final Thread thread = Thread.currentThread();
+            if (thread instanceof ForkJoinWorkerThread poolThread
+                    && poolThread.getPool() == pool
+                    && poolThread.getPoolIndex() < workers.length()) {
+                final int index = poolThread.getPoolIndex();
+                SearchWorker worker = workers.get(index);
+                if (worker == null) {
+                    worker = new SearchWorker(root, maxDepth, table);
+                    workers.set(index, worker);
+                }
+                return worker;
+            }
+            return externalWorkers.computeIfAbsent(
+                    thread,
+                    key -> new SearchWorker(root, maxDepth, table)
+            );
+        }
+
+        private boolean isTimeUp() {
+            if (!stopped && System.nanoTime() - deadlineNanos > 0) {
+                stopped = true;
+            }
+            return stopped;
+        }
+    }
+
+    /**
+     * Searches one node of the tree. The task is also the stop signal of everything below it:
+     * a subtree stops when the time is up or when any of its ancestors got a cut-off.
+     */
+    private static final class SplitTask extends RecursiveTask<Integer>
+            implements SearchWorker.SearchControl {
+
+        private final SearchContext context;
+
+        private final SplitTask parent;
+
+        private final BoardState state;
+
+        private final int depth;
+
+        private final int alpha;
+
+        private final int beta;
+
+        private final int preferredCupIndex;
+
+        private volatile boolean cutoff;
+
+        private int bestCupIndex = MoveOrdering.NO_MOVE;
+
+        private SplitTask(
+                SearchContext context,
+                SplitTask parent,
+                BoardState state,
+                int depth,
+                int alpha,
+                int beta,
+                int preferredCupIndex
+        ) {
+            this.context = context;
+            this.parent = parent;
+            this.state = state;
+            this.depth = depth;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.preferredCupIndex = preferredCupIndex;
+        }
+
+        @Override
+        public boolean isStopped() {
+            if (context.isTimeUp()) {
+                return true;
+            }
+            for (SplitTask task = this; task != null; task = task.parent) {
+                if (task.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (isStopped()) {
+                return 0;
+            }
+            if (state.isGameOver()) {
+                context.nodes.increment();
+                return Evaluation.evaluate(state, context.rootSeat);
+            }
+            // the root always splits as it has to report its best move
+            if (depth < SPLIT_DEPTH && parent != null) {
+                return searchSerially();
+            }
+            context.nodes.increment();
+
+            final boolean maximizing = state.getActiveSeat() == context.rootSeat;
+            final int[] moves = new int[state.getCupsNumber()];
+            final int movesNumber = MoveOrdering.orderMoves(state, preferredCupIndex, moves);
+
+            // the eldest brother establishes the window for the younger ones
+            int bestScore = child(moves[0], alpha, beta).compute();
+            if (isStopped()) {
+                return 0;
+            }
+            bestCupIndex = moves[0];
+            int windowAlpha = maximizing ? Math.max(alpha, bestScore) : alpha;
+            int windowBeta = maximizing ? beta : Math.min(beta, bestScore);
+            if (windowAlpha >= windowBeta) {
+                return bestScore;
+            }
+
+            final SplitTask[] brothers = new SplitTask[movesNumber - 1];
+            for (int i = 1; i < movesNumber; i++) {
+                brothers[i - 1] = child(moves[i], windowAlpha, windowBeta);
+            }
+            // forked in reverse order, so the first brother is on top of the local queue and is
+            // run by this thread on join while idle threads steal the others
+            for (int i = brothers.length - 1; i >= 0; i--) {
+                brothers[i].fork();
+            }
+            for (int i = 0; i < brothers.length; i++) {
+                final int score = brothers[i].join();
+                if (isStopped()) {
+                    cancel(brothers, i + 1);
+                    return 0;
+                }
+                if (maximizing ? score > bestScore : score < bestScore) {
+                    bestScore = score;
+                    bestCupIndex = moves[i + 1];
+                    if (maximizing) {
+                        windowAlpha = Math.max(windowAlpha, score);
+                    } else {
+                        windowBeta = Math.min(windowBeta, score);
+                    }
+                }
+                if (windowAlpha >= windowBeta) {
+                    cutoff = true;
+                    cancel(brothers, i + 1);
+                    break;
+                }
+            }
+            return bestScore;
+        }
+
+        private static void cancel(SplitTask[] tasks, int from) {
+            for (int i = from; i < tasks.length; i++) {
+                tasks[i].cancel(false);
+            }
+        }
+
+        private SplitTask child(int cupIndex, int childAlpha, int childBeta) {
+            final BoardState childState = state.copy();
+            childState.playMove(cupIndex);
+            return new SplitTask(
+                    context, this, childState, depth - 1, childAlpha, childBeta, MoveOrdering.NO_MOVE
+            );
+        }
+
+        private int searchSerially() {
+            final SearchWorker worker = context.worker();
+            final int score = worker.search(state, depth, alpha, beta, this);
+            context.nodes.add(worker.pollNodes());
+            if (worker.pollDepthLimitReached()) {
+                context.depthLimitReached = true;
+            }
+            return worker.isAborted() ? 0 : score;
+        }
+    }
+}
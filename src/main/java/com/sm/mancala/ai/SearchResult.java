@@ -0,0 +1,13 @@
+package com.sm.mancala.ai;
+
+/**
+ * Outcome of a search.
+ *
+ * @param cupNumber number (1-based, relative to the active seat) of the cup to move from
+ * @param score     evaluation of the position for the active seat
+ * @param depth     deepest completed search depth, {@code 0} when no search was needed
+ * @param nodes     number of visited positions
+ */
+public record SearchResult(int cupNumber, int score, int depth, long nodes) {
+
+}
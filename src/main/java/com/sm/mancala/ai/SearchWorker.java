@@ -0,0 +1,180 @@
+package com.sm.mancala.ai;
+
+import static com.sm.mancala.ai.Evaluation.INFINITE_SCORE;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.engine.ZobristKeys;
+
+/**
+ * Serial alpha-beta over a preallocated stack of {@link BoardState}s, one per ply, so visiting
+ * nodes does not allocate. A worker is bound to one thread at a time; the parallel search keeps
+ * one per pool thread. An optional {@link TranspositionTable} may be shared by any number of
+ * workers.
+ */
+final class SearchWorker {
+
+    private static final long STOP_CHECK_MASK = 1023;
+
+    private final BoardState[] stack;
+
+    private final int[][] moves;
+
+    private final int[] killerMoves;
+
+    private final int rootSeat;
+
+    private final TranspositionTable table;
+
+    private final long rootSeatKey;
+
+    private SearchControl control;
+
+    private long nodes;
+
+    private boolean aborted;
+
+    private boolean depthLimitReached;
+
+    SearchWorker(BoardState root, int maxDepth, TranspositionTable table) {
+        this.stack = new BoardState[maxDepth + 1];
+        this.moves = new int[maxDepth + 1][root.getCupsNumber()];
+        this.killerMoves = new int[maxDepth + 1];
+        for (int ply = 0; ply <= maxDepth; ply++) {
+            stack[ply] = root.copy();
+            killerMoves[ply] = MoveOrdering.NO_MOVE;
+        }
+        this.rootSeat = root.getActiveSeat();
+        this.table = table;
+        this.rootSeatKey = ZobristKeys.searchSeatKey(rootSeat);
+    }
+
+    /**
+     * Searches the position to the given depth. The result is meaningless when {@link #isAborted()}
+     * returns {@code true} afterwards.
+     *
+     * @return score of the position for the root seat of the search
+     */
+    int search(BoardState state, int depth, int alpha, int beta, SearchControl control) {
+        this.control = control;
+        this.aborted = false;
+        stack[0].copyFrom(state);
+        return alphaBeta(0, depth, alpha, beta);
+    }
+
+    private int alphaBeta(int ply, int depth, int alpha, int beta) {
+        nodes++;
+        if ((nodes & STOP_CHECK_MASK) == 0 && control.isStopped()) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        final BoardState state = stack[ply];
+        if (state.isGameOver()) {
+            return Evaluation.evaluate(state, rootSeat);
+        }
+        if (depth == 0) {
+            depthLimitReached = true;
+            return Evaluation.evaluate(state, rootSeat);
+        }
+
+        final long key = state.getPositionHash() ^ rootSeatKey;
+        int preferredCupIndex = killerMoves[ply];
+        if (table != null) {
+            final long entry = table.probe(key);
+            if (entry != TranspositionTable.NO_ENTRY) {
+                if (TranspositionTable.depth(entry) >= depth && isUsable(entry, alpha, beta)) {
+                    // the stored subtree might have been cut by the depth limit
+                    depthLimitReached = true;
+                    return TranspositionTable.score(entry);
+                }
+                final int storedCupIndex = TranspositionTable.bestCupIndex(entry);
+                if (storedCupIndex != MoveOrdering.NO_MOVE) {
+                    preferredCupIndex = storedCupIndex;
+                }
+            }
+        }
+
+        final boolean maximizing = state.getActiveSeat() == rootSeat;
+        final int[] plyMoves = moves[ply];
+        final int movesNumber = MoveOrdering.orderMoves(state, preferredCupIndex, plyMoves);
+
+        final int originalAlpha = alpha;
+        final int originalBeta = beta;
+        int bestScore = maximizing ? -INFINITE_SCORE : INFINITE_SCORE;
+        int bestCupIndex = MoveOrdering.NO_MOVE;
+        for (int i = 0; i < movesNumber; i++) {
+            final BoardState child = stack[ply + 1];
+            child.copyFrom(state);
+            child.playMove(plyMoves[i]);
+
+            final int score = alphaBeta(ply + 1, depth - 1, alpha, beta);
+            if (maximizing ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                bestCupIndex = plyMoves[i];
+                if (maximizing) {
+                    alpha = Math.max(alpha, score);
+                } else {
+                    beta = Math.min(beta, score);
+                }
+            }
+            if (alpha >= beta) {
+                // remembered as a killer move for the sibling positions on this ply
+                killerMoves[ply] = plyMoves[i];
+                break;
+            }
+        }
+
+        if (table != null && !aborted) {
+            final int bound = bestScore <= originalAlpha
+                    ? TranspositionTable.UPPER_BOUND
+                    : bestScore >= originalBeta
+                            ? TranspositionTable.LOWER_BOUND
+                            : TranspositionTable.EXACT;
+            table.store(key, depth, bound, bestScore, bestCupIndex);
+        }
+        return bestScore;
+    }
+
+    private static boolean isUsable(long entry, int alpha, int beta) {
+        final int score = TranspositionTable.score(entry);
+        return switch (TranspositionTable.bound(entry)) {
+            case TranspositionTable.LOWER_BOUND -> score >= beta;
+            case TranspositionTable.UPPER_BOUND -> score <= alpha;
+            default -> true;
+        };
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Whether any search since the last call stopped on the depth limit rather than on the end
+     * of the game; resets the flag.
+     */
+    boolean pollDepthLimitReached() {
+        final boolean reached = depthLimitReached;
+        depthLimitReached = false;
+        return reached;
+    }
+
+    /**
+     * Number of nodes visited since the last call; resets the counter.
+     */
+    long pollNodes() {
+        final long visited = nodes;
+        nodes = 0;
+        return visited;
+    }
+
+    /**
+     * Tells a running search to stop, polled every 1024 nodes.
+     */
+    @FunctionalInterface
+    interface SearchControl {
+
+        boolean isStopped();
+    }
+}
@@ -0,0 +1,128 @@
+package com.sm.mancala.ai;
+
+/**
+ * Fixed-size transposition table shared by all searching threads without locking.
+ *
+ * <p>Every entry takes two {@code long} slots: the position key XOR-ed with the packed data, and
+ * the data itself (score, depth, bound and best cup index). Reads and writes of the two slots are
+ * not atomic together, so a torn entry written concurrently by two threads simply fails the XOR
+ * check on probe and is treated as a miss.
+ *
+ * <p>Replacement is depth-preferred: an entry of the current search generation is only replaced
+ * by a result searched at least as deep, entries of earlier searches are always replaced.
+ */
+public final class TranspositionTable {
+
+    public static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+
+    public static final long NO_ENTRY = 0;
+
+    public static final int EXACT = 0;
+
+    public static final int LOWER_BOUND = 1;
+
+    public static final int UPPER_BOUND = 2;
+
+    private static final int MAX_ENTRIES = 1 << 30;
+
+    private static final int DEPTH_SHIFT = 32;
+
+    private static final int BOUND_SHIFT = 40;
+
+    private static final int CUP_SHIFT = 42;
+
+    private static final int GENERATION_SHIFT = 54;
+
+    private static final long PRESENT_BIT = 1L << 63;
+
+    private static final int GENERATION_MASK = 0xFF;
+
+    private final long[] slots;
+
+    private final int indexMask;
+
+    private volatile int generation;
+
+    /**
+     * @param sizeBytes memory budget; the number of entries is the largest power of two fitting
+     *                  into it
+     */
+    public TranspositionTable(long sizeBytes) {
+        final long entries = Math.min(Math.max(sizeBytes / BYTES_PER_ENTRY, 1), MAX_ENTRIES);
+        final int capacity = Integer.highestOneBit((int) entries);
+        this.slots = new long[2 * capacity];
+        this.indexMask = capacity - 1;
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Starts a new search generation, letting its results replace entries of earlier searches
+     * regardless of their depth.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * @return packed entry of the position or {@link #NO_ENTRY}
+     */
+    public long probe(long key) {
+        final int index = index(key);
+        final long data = slots[index + 1];
+        final long check = slots[index];
+        if (data != NO_ENTRY && (check ^ data) == key) {
+            return data;
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(long key, int depth, int bound, int score, int bestCupIndex) {
+        final int index = index(key);
+        final long existing = slots[index + 1];
+        final int currentGeneration = generation;
+        if (existing != NO_ENTRY
+                && generation(existing) == currentGeneration
+                && depth(existing) > depth) {
+            return;
+        }
+        final long data = PRESENT_BIT
+                | (long) currentGeneration << GENERATION_SHIFT
+                | (long) (bestCupIndex & 0xFFF) << CUP_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) (depth & 0xFF) << DEPTH_SHIFT
+                | score & 0xFFFFFFFFL;
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * @return board index of the best cup or {@link MoveOrdering#NO_MOVE} when none was stored
+     */
+    public static int bestCupIndex(long entry) {
+        final int cupIndex = (int) (entry >>> CUP_SHIFT) & 0xFFF;
+        return cupIndex == 0xFFF ? MoveOrdering.NO_MOVE : cupIndex;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private int index(long key) {
+        return (int) (key & indexMask) << 1;
+    }
+}
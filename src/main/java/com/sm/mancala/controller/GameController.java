@@ -1,11 +1,16 @@
 package com.sm.mancala.controller;
 
+import com.sm.mancala.domain.game.Game;
 import com.sm.mancala.service.GameService;
 import com.sm.mancala.web.api.GamesApi;
 import com.sm.mancala.web.model.CreateGameRequest;
+import com.sm.mancala.web.model.CreateGamesRequest;
+import com.sm.mancala.web.model.CreatedGamesDto;
 import com.sm.mancala.web.model.GameDto;
 import com.sm.mancala.web.model.GameMove;
 import com.sm.mancala.web.model.GameMoveResultDataDto;
+import com.sm.mancala.web.model.HintDto;
+import com.sm.mancala.web.model.LegalMovesDto;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,14 +34,38 @@ public class GameController implements GamesApi {
     public ResponseEntity<GameDto> createGame(CreateGameRequest createGameRequest) {
         final var game = gameService.createGame(
                 createGameRequest.getPlayersNumber(),
-                createGameRequest.getStonesPerCup()
+                createGameRequest.getStonesPerCup(),
+                Boolean.TRUE.equals(createGameRequest.getBotOpponent())
         );
         return ResponseEntity.status(HttpStatus.CREATED).body(game.toDto());
     }
 
+    @Override
+    public ResponseEntity<CreatedGamesDto> createGames(CreateGamesRequest createGamesRequest) {
+        final var games = gameService.createGames(
+                createGamesRequest.getPlayersNumber(),
+                createGamesRequest.getStonesPerCup(),
+                Boolean.TRUE.equals(createGamesRequest.getBotOpponent()),
+                createGamesRequest.getGamesNumber()
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(new CreatedGamesDto()
+                .gameIds(games.stream().map(Game::getId).toList()));
+    }
+
     @Override
     public ResponseEntity<GameDto> getGameById(Long gameId) {
-        final var game = gameService.getGameById(gameId);
-        return ResponseEntity.ok(game.toDto());
+        return ResponseEntity.ok(gameService.getGameDtoById(gameId));
+    }
+
+    @Override
+    public ResponseEntity<LegalMovesDto> getLegalMoves(Long gameId) {
+        final var legalMoves = gameService.getLegalMoves(gameId);
+        return ResponseEntity.ok(legalMoves.toDto());
+    }
+
+    @Override
+    public ResponseEntity<HintDto> getHint(Long gameId) {
+        final var hint = gameService.getHint(gameId);
+        return ResponseEntity.ok(hint.toDto());
     }
 }
@@ -0,0 +1,109 @@
+package com.sm.mancala.domain.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lookup tables of one board shape (players number, cups number), built once and shared by all
+ * {@link BoardState}s of that shape.
+ *
+ * <p>For every seat the table of next pits skips the mancalas of the other seats, so sowing is a
+ * plain table walk. The opposite cup of a cup is the mirrored cup in the row of the next seat in
+ * sowing order; with two players that is the cup right across the board.
+ */
+public final class BoardShape {
+
+    private static final Map<Long, BoardShape> SHAPES = new ConcurrentHashMap<>();
+
+    private static final int NO_PIT = -1;
+
+    private final int playersNumber;
+
+    private final int cupsNumber;
+
+    private final int pitsNumber;
+
+    private final int[] nextPits;
+
+    private final int[] oppositeCups;
+
+    private final int[] seats;
+
+    private final boolean[] mancalas;
+
+    private BoardShape(int playersNumber, int cupsNumber) {
+        if (playersNumber < 1 || cupsNumber < 1) {
+            throw new IllegalArgumentException(
+                    "Board shape must have players and cups: " + playersNumber + "x" + cupsNumber);
+        }
+        final int pitsPerPlayer = cupsNumber + 1;
+        this.playersNumber = playersNumber;
+        this.cupsNumber = cupsNumber;
+        this.pitsNumber = playersNumber * pitsPerPlayer;
+        this.seats = new int[pitsNumber];
+        this.mancalas = new boolean[pitsNumber];
+        this.oppositeCups = new int[pitsNumber];
+        for (int pit = 0; pit < pitsNumber; pit++) {
+            final int seat = pit / pitsPerPlayer;
+            final int position = pit % pitsPerPlayer;
+            seats[pit] = seat;
+            mancalas[pit] = position == cupsNumber;
+            final int oppositeSeat = (seat + 1) % playersNumber;
+            oppositeCups[pit] = mancalas[pit] || oppositeSeat == seat
+                    ? NO_PIT
+                    : oppositeSeat * pitsPerPlayer + cupsNumber - 1 - position;
+        }
+
+        this.nextPits = new int[playersNumber * pitsNumber];
+        for (int seat = 0; seat < playersNumber; seat++) {
+            for (int pit = 0; pit < pitsNumber; pit++) {
+                int next = pit;
+                do {
+                    next = next + 1 == pitsNumber ? 0 : next + 1;
+                } while (mancalas[next] && seats[next] != seat);
+                nextPits[seat * pitsNumber + pit] = next;
+            }
+        }
+    }
+
+    public static BoardShape of(int playersNumber, int cupsNumber) {
+        return SHAPES.computeIfAbsent(
+                (long) playersNumber << 32 | cupsNumber,
+                key -> new BoardShape(playersNumber, cupsNumber)
+        );
+    }
+
+    /**
+     * Pit the seat sows into after the given one.
+     */
+    public int nextPit(int seat, int pitIndex) {
+        return nextPits[seat * pitsNumber + pitIndex];
+    }
+
+    /**
+     * @return index of the opposite cup, or {@code -1} for mancalas and single-seat boards
+     */
+    public int oppositeCup(int cupIndex) {
+        return oppositeCups[cupIndex];
+    }
+
+    public int seatOf(int pitIndex) {
+        return seats[pitIndex];
+    }
+
+    public boolean isMancala(int pitIndex) {
+        return mancalas[pitIndex];
+    }
+
+    public int getPlayersNumber() {
+        return playersNumber;
+    }
+
+    public int getCupsNumber() {
+        return cupsNumber;
+    }
+
+    public int getPitsNumber() {
+        return pitsNumber;
+    }
+}
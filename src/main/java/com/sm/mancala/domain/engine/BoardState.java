@@ -0,0 +1,409 @@
+package com.sm.mancala.domain.engine;
+
+import java.util.Arrays;
+
+/**
+ * Entity-free representation of the playing field. Pits are stored as a plain {@code int[]} of
+ * stone counts in board order and owners are seat indices, so moves, validation and finish checks
+ * can be executed without touching {@link com.sm.mancala.domain.pit.Pit} entities.
+ *
+ * <p>The layout is the same as the one produced by
+ * {@link com.sm.mancala.domain.game.Board#createBoardForPlayers}: each seat owns {@code cupsNumber}
+ * consecutive cups followed by its mancala. Pit owners, sowing order and opposite cups come from
+ * the {@link BoardShape} tables shared by all states of the same shape.
+ */
+public final class BoardState {
+
+    private final int playersNumber;
+
+    private final int cupsNumber;
+
+    private final int pitsPerPlayer;
+
+    private final BoardShape shape;
+
+    private final int[] stones;
+
+    // stones left in the cups of each seat, kept up to date by every mutation
+    private final int[] cupStones;
+
+    private int activeSeat;
+
+    // Zobrist hash of the shape and the stone counts, updated incrementally on every pit change
+    private long stonesHash;
+
+    public BoardState(int playersNumber, int cupsNumber) {
+        this.playersNumber = playersNumber;
+        this.cupsNumber = cupsNumber;
+        this.pitsPerPlayer = cupsNumber + 1;
+        this.shape = BoardShape.of(playersNumber, cupsNumber);
+        this.stones = new int[playersNumber * pitsPerPlayer];
+        this.cupStones = new int[playersNumber];
+        this.stonesHash = ZobristKeys.shapeKey(playersNumber, cupsNumber);
+    }
+
+    public static BoardState createInitialState(
+            int playersNumber,
+            int cupsNumber,
+            int stonesPerCup
+    ) {
+        final BoardState state = new BoardState(playersNumber, cupsNumber);
+        for (int i = 0; i < state.stones.length; i++) {
+            if (!state.isMancala(i)) {
+                state.setStones(i, stonesPerCup);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Makes a move for the owner of the selected cup: sows its stones and performs a capture if
+     * the last stone landed in an empty cup of the mover.
+     *
+     * @return board index of the pit where the last stone was placed
+     */
+    public int makeMove(int cupIndex) {
+        final int seat = seatOf(cupIndex);
+
+        final int moveLastPitIndex = sowStones(seat, cupIndex);
+        processCaptureMove(seat, moveLastPitIndex);
+
+        return moveLastPitIndex;
+    }
+
+    /**
+     * Plays a move of the active seat by the turn rules of the game, the game service plays by
+     * them too: the seat keeps the turn when the last stone lands in its own mancala, and when any
+     * seat runs out of stones the remaining stones are collected and the game is over (see
+     * {@link #isGameOver()}).
+     *
+     * @return board index of the pit where the last stone was placed
+     */
+    public int playMove(int cupIndex) {
+        final int seat = activeSeat;
+        final int moveLastPitIndex = makeMove(cupIndex);
+
+        if (hasFinishedSeat()) {
+            collectRemainingStones();
+        } else if (moveLastPitIndex != mancalaIndex(seat)) {
+            setActiveSeat(seat + 1 == playersNumber ? 0 : seat + 1);
+        }
+        return moveLastPitIndex;
+    }
+
+    public boolean isGameOver() {
+        return hasFinishedSeat();
+    }
+
+    /**
+     * @return seat with the most stones in its mancala, or {@code -1} when the first place is
+     * shared
+     */
+    public int getWinnerSeat() {
+        int winner = -1;
+        int best = -1;
+        for (int seat = 0; seat < playersNumber; seat++) {
+            final int mancalaStones = stones[mancalaIndex(seat)];
+            if (mancalaStones > best) {
+                best = mancalaStones;
+                winner = seat;
+            } else if (mancalaStones == best) {
+                winner = -1;
+            }
+        }
+        return winner;
+    }
+
+    /**
+     * Whether every seat has the same number of stones in its mancala.
+     */
+    public boolean isDraw() {
+        final int firstMancalaStones = stones[mancalaIndex(0)];
+        for (int seat = 1; seat < playersNumber; seat++) {
+            if (stones[mancalaIndex(seat)] != firstMancalaStones) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return first seat with the most stones in its mancala
+     */
+    public int getLeadingSeat() {
+        int leader = 0;
+        for (int seat = 1; seat < playersNumber; seat++) {
+            if (stones[mancalaIndex(seat)] > stones[mancalaIndex(leader)]) {
+                leader = seat;
+            }
+        }
+        return leader;
+    }
+
+    /**
+     * Full laps around the board are applied arithmetically, so only the remainder of the stones
+     * is walked pit by pit and the cost of a move does not depend on the number of stones.
+     */
+    private int sowStones(int seat, int cupIndex) {
+        int stonesInHand = stones[cupIndex];
+        changeStones(cupIndex, 0);
+        cupStones[seat] -= stonesInHand;
+
+        // every pit except the mancalas of the other seats receives a stone on each lap
+        final int sowablePitsNumber = stones.length - (playersNumber - 1);
+        final int laps = stonesInHand / sowablePitsNumber;
+        if (laps > 0) {
+            for (int i = 0; i < stones.length; i++) {
+                if (isSowAllowed(seat, i)) {
+                    changeStones(i, stones[i] + laps);
+                }
+            }
+            for (int s = 0; s < playersNumber; s++) {
+                cupStones[s] += laps * cupsNumber;
+            }
+            stonesInHand -= laps * sowablePitsNumber;
+            if (stonesInHand == 0) {
+                // the last lap ends in the cup the stones were picked up from
+                return cupIndex;
+            }
+        }
+
+        int currentIndex = cupIndex;
+        while (stonesInHand > 0) {
+            currentIndex = shape.nextPit(seat, currentIndex);
+            changeStones(currentIndex, stones[currentIndex] + 1);
+            stonesInHand--;
+            if (!shape.isMancala(currentIndex)) {
+                cupStones[shape.seatOf(currentIndex)]++;
+            }
+        }
+        return currentIndex;
+    }
+
+    private void processCaptureMove(int seat, int moveLastPitIndex) {
+        if (isMancala(moveLastPitIndex) || seatOf(moveLastPitIndex) != seat
+                || stones[moveLastPitIndex] != 1) {
+            return;
+        }
+
+        final int oppositePitIndex = shape.oppositeCup(moveLastPitIndex);
+        if (oppositePitIndex < 0 || stones[oppositePitIndex] == 0) {
+            return;
+        }
+
+        final int mancalaIndex = mancalaIndex(seat);
+        changeStones(
+                mancalaIndex,
+                stones[mancalaIndex] + stones[moveLastPitIndex] + stones[oppositePitIndex]
+        );
+        cupStones[seat] -= stones[moveLastPitIndex];
+        cupStones[seatOf(oppositePitIndex)] -= stones[oppositePitIndex];
+        changeStones(moveLastPitIndex, 0);
+        changeStones(oppositePitIndex, 0);
+    }
+
+    // the only place where pit counts are written, cup totals are maintained by the callers
+    private void changeStones(int pitIndex, int stoneCount) {
+        stonesHash ^= ZobristKeys.pitKey(pitIndex, stones[pitIndex])
+                ^ ZobristKeys.pitKey(pitIndex, stoneCount);
+        stones[pitIndex] = stoneCount;
+    }
+
+    private boolean isSowAllowed(int seat, int pitIndex) {
+        return !isMancala(pitIndex) || seatOf(pitIndex) == seat;
+    }
+
+    /**
+     * Checks that the cup belongs to the seat and holds at least one stone.
+     */
+    public boolean isMoveAllowed(int seat, int cupIndex) {
+        return cupIndex >= 0 && cupIndex < stones.length
+                && !isMancala(cupIndex)
+                && seatOf(cupIndex) == seat
+                && stones[cupIndex] > 0;
+    }
+
+    /**
+     * Legal moves of the seat in one pass: bit {@code n - 1} is set when cup number {@code n} of
+     * the seat holds stones. Boards with more than 63 cups per seat should use
+     * {@link #legalCupNumbers(int)}.
+     */
+    public long legalMovesMask(int seat) {
+        if (cupsNumber >= Long.SIZE) {
+            throw new IllegalStateException("Too many cups for a legal moves mask: " + cupsNumber);
+        }
+        final int firstCupIndex = seat * pitsPerPlayer;
+        long mask = 0;
+        for (int i = 0; i < cupsNumber; i++) {
+            if (stones[firstCupIndex + i] != 0) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Numbers (1-based, relative to the seat) of the cups the seat can move from, ascending.
+     */
+    public int[] legalCupNumbers(int seat) {
+        final int firstCupIndex = seat * pitsPerPlayer;
+        int count = 0;
+        final int[] cupNumbers = new int[cupsNumber];
+        for (int i = 0; i < cupsNumber; i++) {
+            if (stones[firstCupIndex + i] != 0) {
+                cupNumbers[count++] = i + 1;
+            }
+        }
+        return Arrays.copyOf(cupNumbers, count);
+    }
+
+    public boolean isSeatFinished(int seat) {
+        return cupStones[seat] == 0;
+    }
+
+    public boolean hasFinishedSeat() {
+        for (int seat = 0; seat < playersNumber; seat++) {
+            if (isSeatFinished(seat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves stones left in each seat's cups to the seat's own mancala, as it is done when the
+     * game is over.
+     */
+    public void collectRemainingStones() {
+        for (int seat = 0; seat < playersNumber; seat++) {
+            final int firstCupIndex = seat * pitsPerPlayer;
+            final int mancalaIndex = mancalaIndex(seat);
+            for (int i = firstCupIndex; i < mancalaIndex; i++) {
+                if (stones[i] != 0) {
+                    changeStones(mancalaIndex, stones[mancalaIndex] + stones[i]);
+                    changeStones(i, 0);
+                }
+            }
+            cupStones[seat] = 0;
+        }
+    }
+
+    public int seatOf(int pitIndex) {
+        return shape.seatOf(pitIndex);
+    }
+
+    public boolean isMancala(int pitIndex) {
+        return shape.isMancala(pitIndex);
+    }
+
+    public int mancalaIndex(int seat) {
+        return seat * pitsPerPlayer + cupsNumber;
+    }
+
+    public int cupIndex(int seat, int cupNumber) {
+        return seat * pitsPerPlayer + cupNumber - 1;
+    }
+
+    /**
+     * @return index of the opposite cup, or {@code -1} for mancalas and single-seat boards
+     */
+    public int oppositeCup(int cupIndex) {
+        return shape.oppositeCup(cupIndex);
+    }
+
+    public int getLastCupIndex() {
+        return stones.length - 2;
+    }
+
+    public int getStones(int pitIndex) {
+        return stones[pitIndex];
+    }
+
+    public void setStones(int pitIndex, int stoneCount) {
+        if (!isMancala(pitIndex)) {
+            cupStones[seatOf(pitIndex)] += stoneCount - stones[pitIndex];
+        }
+        changeStones(pitIndex, stoneCount);
+    }
+
+    public int getCupStones(int seat) {
+        return cupStones[seat];
+    }
+
+    public int getActiveSeat() {
+        return activeSeat;
+    }
+
+    public void setActiveSeat(int activeSeat) {
+        this.activeSeat = activeSeat;
+    }
+
+    /**
+     * Zobrist hash of the stone counts, independent of the side to move.
+     */
+    public long getStonesHash() {
+        return stonesHash;
+    }
+
+    /**
+     * Zobrist hash of the whole position: stone counts and the side to move.
+     */
+    public long getPositionHash() {
+        return stonesHash ^ ZobristKeys.seatKey(activeSeat);
+    }
+
+    public int getPitsNumber() {
+        return stones.length;
+    }
+
+    public int getPlayersNumber() {
+        return playersNumber;
+    }
+
+    public int getCupsNumber() {
+        return cupsNumber;
+    }
+
+    public BoardState copy() {
+        final BoardState copy = new BoardState(playersNumber, cupsNumber);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with the other one without allocating, both states must have the same
+     * board shape.
+     */
+    public void copyFrom(BoardState other) {
+        System.arraycopy(other.stones, 0, stones, 0, stones.length);
+        System.arraycopy(other.cupStones, 0, cupStones, 0, cupStones.length);
+        this.activeSeat = other.activeSeat;
+        this.stonesHash = other.stonesHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardState other)) {
+            return false;
+        }
+        return stonesHash == other.stonesHash
+                && playersNumber == other.playersNumber
+                && cupsNumber == other.cupsNumber
+                && activeSeat == other.activeSeat
+                && Arrays.equals(stones, other.stones);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * playersNumber + cupsNumber) + activeSeat)
+                + Arrays.hashCode(stones);
+    }
+
+    @Override
+    public String toString() {
+        return "BoardState" + Arrays.toString(stones) + ", activeSeat=" + activeSeat;
+    }
+}
@@ -0,0 +1,121 @@
+package com.sm.mancala.domain.engine;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact encodings of {@link BoardState}. Standard 2x6 boards with less than 256 stones in every
+ * pit are packed into a {@link PackedBoardState}, boards of any shape can be encoded into a small
+ * byte array of unsigned varints: players number, cups number, active seat and pit stone counts.
+ */
+public final class BoardStateCodec {
+
+    public static final int PACKED_PLAYERS_NUMBER = 2;
+
+    public static final int PACKED_CUPS_NUMBER = 6;
+
+    private static final int PACKED_PITS_NUMBER =
+            PACKED_PLAYERS_NUMBER * (PACKED_CUPS_NUMBER + 1);
+
+    private static final int PITS_PER_LONG = Long.BYTES;
+
+    private static final int ACTIVE_SEAT_SHIFT = (PACKED_PITS_NUMBER - PITS_PER_LONG) * 8;
+
+    private static final int BYTE_MASK = 0xFF;
+
+    private BoardStateCodec() {
+    }
+
+    public static boolean isPackable(BoardState state) {
+        if (state.getPlayersNumber() != PACKED_PLAYERS_NUMBER
+                || state.getCupsNumber() != PACKED_CUPS_NUMBER) {
+            return false;
+        }
+        for (int i = 0; i < PACKED_PITS_NUMBER; i++) {
+            if (state.getStones(i) > BYTE_MASK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static PackedBoardState pack(BoardState state) {
+        if (!isPackable(state)) {
+            throw new IllegalArgumentException("Board state cannot be packed: " + state);
+        }
+
+        long low = 0;
+        long high = 0;
+        for (int i = 0; i < PITS_PER_LONG; i++) {
+            low |= (long) state.getStones(i) << (i * 8);
+        }
+        for (int i = PITS_PER_LONG; i < PACKED_PITS_NUMBER; i++) {
+            high |= (long) state.getStones(i) << ((i - PITS_PER_LONG) * 8);
+        }
+        high |= (long) state.getActiveSeat() << ACTIVE_SEAT_SHIFT;
+
+        return new PackedBoardState(low, high);
+    }
+
+    public static BoardState unpack(PackedBoardState packed) {
+        final BoardState state = new BoardState(PACKED_PLAYERS_NUMBER, PACKED_CUPS_NUMBER);
+        for (int i = 0; i < PITS_PER_LONG; i++) {
+            state.setStones(i, (int) (packed.low() >>> (i * 8)) & BYTE_MASK);
+        }
+        for (int i = PITS_PER_LONG; i < PACKED_PITS_NUMBER; i++) {
+            state.setStones(i, (int) (packed.high() >>> ((i - PITS_PER_LONG) * 8)) & BYTE_MASK);
+        }
+        state.setActiveSeat((int) (packed.high() >>> ACTIVE_SEAT_SHIFT) & BYTE_MASK);
+        return state;
+    }
+
+    public static byte[] encode(BoardState state) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(state.getPitsNumber() + 3);
+        writeVarInt(out, state.getPlayersNumber());
+        writeVarInt(out, state.getCupsNumber());
+        writeVarInt(out, state.getActiveSeat());
+        for (int i = 0; i < state.getPitsNumber(); i++) {
+            writeVarInt(out, state.getStones(i));
+        }
+        return out.toByteArray();
+    }
+
+    public static BoardState decode(byte[] bytes) {
+        final int[] position = {0};
+        final int playersNumber = readVarInt(bytes, position);
+        final int cupsNumber = readVarInt(bytes, position);
+
+        final BoardState state = new BoardState(playersNumber, cupsNumber);
+        state.setActiveSeat(readVarInt(bytes, position));
+        for (int i = 0; i < state.getPitsNumber(); i++) {
+            state.setStones(i, readVarInt(bytes, position));
+        }
+        if (position[0] != bytes.length) {
+            throw new IllegalArgumentException("Unexpected trailing bytes in encoded board state");
+        }
+        return state;
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Encoded board state is truncated");
+            }
+            final int b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in encoded board state");
+    }
+}
@@ -0,0 +1,10 @@
+package com.sm.mancala.domain.engine;
+
+/**
+ * Standard 2-player, 6-cup board packed into two longs: one byte per pit in board order (pits
+ * 0-7 in {@code low}, pits 8-13 in the lower bytes of {@code high}) and the active seat in the
+ * 7th byte of {@code high}. Instances are suitable as map keys.
+ */
+public record PackedBoardState(long low, long high) {
+
+}
@@ -0,0 +1,75 @@
+package com.sm.mancala.domain.engine;
+
+/**
+ * Zobrist keys for (pit index, stone count), side to move and board shape. Keys are derived from
+ * a fixed seed, so hashes are stable between runs and can be stored in files.
+ *
+ * <p>Keys for the first {@value #TABLE_PITS} pits and {@value #TABLE_STONES} stones are
+ * precomputed; bigger values are mixed on the fly with the same function. A pit without stones
+ * has key {@code 0}, so an empty board hashes to its shape key.
+ */
+public final class ZobristKeys {
+
+    private static final long SEED = 0x6D616E63616C61L;
+
+    private static final int TABLE_PITS = 64;
+
+    private static final int TABLE_STONES = 128;
+
+    private static final long SEAT_SALT = 0x5EA7L << 48;
+
+    private static final long SHAPE_SALT = 0x5BA9EL << 44;
+
+    private static final long SEARCH_SEAT_SALT = 0x5EA2C4L << 40;
+
+    private static final long[] PIT_KEYS = new long[TABLE_PITS * TABLE_STONES];
+
+    static {
+        for (int pit = 0; pit < TABLE_PITS; pit++) {
+            for (int stones = 1; stones < TABLE_STONES; stones++) {
+                PIT_KEYS[pit * TABLE_STONES + stones] = computePitKey(pit, stones);
+            }
+        }
+    }
+
+    private ZobristKeys() {
+    }
+
+    public static long pitKey(int pitIndex, int stoneCount) {
+        if (pitIndex < TABLE_PITS && stoneCount < TABLE_STONES) {
+            return PIT_KEYS[pitIndex * TABLE_STONES + stoneCount];
+        }
+        return computePitKey(pitIndex, stoneCount);
+    }
+
+    public static long seatKey(int seat) {
+        return mix(SEAT_SALT + seat);
+    }
+
+    /**
+     * Key of the seat a search scores positions for, so that tables shared between searches
+     * never mix up scores computed from the point of view of different seats.
+     */
+    public static long searchSeatKey(int seat) {
+        return mix(SEARCH_SEAT_SALT + seat);
+    }
+
+    public static long shapeKey(int playersNumber, int cupsNumber) {
+        return mix(SHAPE_SALT + ((long) playersNumber << 20) + cupsNumber);
+    }
+
+    private static long computePitKey(int pitIndex, int stoneCount) {
+        if (stoneCount == 0) {
+            return 0;
+        }
+        return mix(((long) pitIndex << 32) | stoneCount);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + SEED * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
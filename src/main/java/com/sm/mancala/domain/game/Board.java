@@ -1,5 +1,6 @@
 package com.sm.mancala.domain.game;
 
+import com.sm.mancala.domain.engine.BoardState;
 import com.sm.mancala.domain.pit.Cup;
 import com.sm.mancala.domain.pit.Mancala;
 import com.sm.mancala.domain.pit.Pit;
@@ -7,13 +8,20 @@ import com.sm.mancala.domain.player.Player;
 import com.sm.mancala.domain.player.PlayersGroup;
 import com.sm.mancala.web.model.BoardDto;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.IntStream;
 import lombok.AccessLevel;
@@ -26,19 +34,62 @@ import lombok.Setter;
 public class Board {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_seq")
+    @SequenceGenerator(name = "board_seq", allocationSize = 50)
     private Long id;
 
+    // persisted pits of a board stored as pit rows, empty otherwise
     @OneToMany(mappedBy = "board", cascade = CascadeType.PERSIST)
     @OrderBy("boardIndex ASC")
-    private List<Pit> pits;
+    private List<Pit> pitRows;
+
+    @Enumerated(value = EnumType.STRING)
+    private BoardStorage storage;
+
+    // stone counts of a board stored as an array, initial counts of a board stored as a move log,
+    // null for pit rows
+    @Convert(converter = PitStonesConverter.class)
+    private PitStones stones;
 
     private int lastCupIndex;
 
+    // pits the game is played on: the pit rows, or pits built from the stones array on load
+    @Transient
+    private List<Pit> pits;
+
+    // engine state mirrored by the pits, built on first use and updated by direct pit changes
+    @Transient
+    private BoardState state;
+
+    // set when the state has changed since the stones array of the board was last built
+    @Transient
+    private boolean stonesOutdated;
+
+    // indices of the pits changed since the board was loaded or its delta was last taken
+    @Transient
+    private final BitSet changedPits = new BitSet();
+
+    // moves played since the board was loaded or its delta was last taken
+    @Transient
+    private final List<PlayedMove> playedMoves = new ArrayList<>();
+
+    // moves played before them, counted by the move log replay
+    @Transient
+    private int movesNumber;
+
     public static Board createBoardForPlayers(
             PlayersGroup playersGroup,
             Integer cupsNumber,
             Integer stonesPerCup
+    ) {
+        return createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup, BoardStorage.PIT_ROWS);
+    }
+
+    public static Board createBoardForPlayers(
+            PlayersGroup playersGroup,
+            Integer cupsNumber,
+            Integer stonesPerCup,
+            BoardStorage storage
     ) {
         final Board board = new Board();
 
@@ -66,10 +117,164 @@ public class Board {
 
         board.setPits(pits);
         board.setLastCupIndex(calculateLastCupIndex(pits));
+        board.setStorage(storage);
+        if (storage == BoardStorage.PIT_ROWS) {
+            board.setPitRows(pits);
+        } else {
+            board.setPitRows(new ArrayList<>());
+            board.setStones(PitStones.of(board.getState()));
+        }
+
+        return board;
+    }
+
+    /**
+     * Builds the pits of a loaded board and hands every player its cups and mancala, which are
+     * found by position: each player owns a row of cups followed by a mancala, in the order of
+     * the group. Does nothing for a board already in play. A board stored as a move log must
+     * be restored first.
+     */
+    void attachPlayers(PlayersGroup playersGroup) {
+        if (pits != null) {
+            return;
+        }
+        final List<Player> players = playersGroup.getPlayers();
+        if (storage == BoardStorage.PIT_ROWS) {
+            pits = pitRows;
+        } else {
+            final BoardState storedState = storage == BoardStorage.STONES_ARRAY
+                    ? stones.toState()
+                    : getRestoredState();
+            pits = buildPits(players, storedState);
+            state = storedState;
+        }
+        handPitsToPlayers(players);
+    }
 
+    /**
+     * Board of a game kept outside of the persistence context, see {@link CompactGame}: the pits
+     * are built from the state and, for a board stored as pit rows, take the ids of their rows.
+     *
+     * @param pitIds ids of the pit rows in board order, {@code null} for other storages
+     */
+    static Board restoreDetached(
+            Long id,
+            BoardStorage storage,
+            BoardState restoredState,
+            Long[] pitIds,
+            int movesNumber,
+            PlayersGroup playersGroup
+    ) {
+        final Board board = new Board();
+        board.setId(id);
+        board.setStorage(storage);
+        board.setPitRows(new ArrayList<>());
+        if (storage == BoardStorage.STONES_ARRAY) {
+            board.setStones(PitStones.of(restoredState));
+        }
+        board.setState(restoredState);
+        board.setMovesNumber(movesNumber);
+
+        final List<Pit> pits = board.buildPits(playersGroup.getPlayers(), restoredState);
+        if (pitIds != null) {
+            for (int i = 0; i < pits.size(); i++) {
+                pits.get(i).setId(pitIds[i]);
+            }
+        }
+        board.setPits(pits);
+        board.setLastCupIndex(calculateLastCupIndex(pits));
+        board.handPitsToPlayers(playersGroup.getPlayers());
         return board;
     }
 
+    private List<Pit> buildPits(List<Player> players, BoardState storedState) {
+        final List<Pit> builtPits = new ArrayList<>(storedState.getPitsNumber());
+        for (int seat = 0; seat < players.size(); seat++) {
+            final Player player = players.get(seat);
+            for (int cupNumber = 1; cupNumber <= storedState.getCupsNumber(); cupNumber++) {
+                builtPits.add(new Cup(
+                        storedState.getStones(storedState.cupIndex(seat, cupNumber)),
+                        player,
+                        this
+                ));
+            }
+            builtPits.add(new Mancala(
+                    storedState.getStones(storedState.mancalaIndex(seat)),
+                    player,
+                    this
+            ));
+        }
+        addPitsBoardIndices(builtPits, storedState.getCupsNumber());
+        return builtPits;
+    }
+
+    private void handPitsToPlayers(List<Player> players) {
+        final int pitsPerPlayer = pits.size() / players.size();
+        for (int seat = 0; seat < players.size(); seat++) {
+            final List<Pit> playerPits = pits.subList(
+                    seat * pitsPerPlayer,
+                    (seat + 1) * pitsPerPlayer
+            );
+            players.get(seat).setPits(
+                    playerPits.subList(0, pitsPerPlayer - 1).stream().map(Cup.class::cast).toList(),
+                    (Mancala) playerPits.get(pitsPerPlayer - 1)
+            );
+        }
+    }
+
+    /**
+     * Takes the position replayed from the move log, the pits are built from it.
+     *
+     * @param movesNumber number of moves played to reach the position
+     */
+    void restore(BoardState restoredState, int movesNumber) {
+        this.state = restoredState;
+        this.movesNumber = movesNumber;
+        this.pits = null;
+    }
+
+    private BoardState getRestoredState() {
+        if (state == null) {
+            throw new IllegalStateException(
+                    String.format("Board with id = %s is not restored from its move log", id)
+            );
+        }
+        return state;
+    }
+
+    /**
+     * Stone counts in the storage format, for a board stored as an array built from the state on
+     * demand rather than after every change.
+     */
+    PitStones getStones() {
+        if (stonesOutdated && storage == BoardStorage.STONES_ARRAY) {
+            stones = PitStones.of(getState());
+        }
+        stonesOutdated = false;
+        return stones;
+    }
+
+    @PrePersist
+    void syncStones() {
+        getStones();
+    }
+
+    int getMovesNumber() {
+        return movesNumber;
+    }
+
+    List<Pit> getPits() {
+        return pits;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BoardStorage getStorage() {
+        return storage;
+    }
+
     private static void addPitsBoardIndices(List<Pit> pits, Integer cupsNumber) {
         int pitsPerPlayer = cupsNumber + 1;
         int currentPitNumberForPlayer = 0;
@@ -86,57 +291,209 @@ public class Board {
         return pits.size() - 2;
     }
 
+    /**
+     * Makes a move for the owner of the selected cup. The move itself is played on an entity-free
+     * {@link BoardState} and the stone counts of the pits it may have changed are synced back into
+     * the pits. Unlike {@link #playMove(Player, int, int)}, which the service plays by, the turn
+     * and the end of the game are left to the caller; kept to sow single moves when setting up
+     * positions.
+     */
     public Pit makeMove(Player player, int cupBoardIndex) {
-        final Pit selectedPit = pits.get(cupBoardIndex);
+        final BoardState currentState = getState();
+
+        final int stonesInHand = currentState.getStones(cupBoardIndex);
+        final int moveLastPitIndex = currentState.makeMove(cupBoardIndex);
+        playedMoves.add(new PlayedMove(
+                player.getId(),
+                pits.get(cupBoardIndex).getBoardNumberForPlayer()
+        ));
+        syncMovedPits(currentState, cupBoardIndex, stonesInHand, moveLastPitIndex);
+        stonesOutdated = true;
+
+        return pits.get(moveLastPitIndex);
+    }
 
-        final int moveLastPitIndex = sowStones(selectedPit, cupBoardIndex);
-        final Pit moveLastPit = pits.get(moveLastPitIndex);
+    /**
+     * Plays a move of the seat with the turn rules of {@link BoardState#playMove(int)}: when a
+     * seat runs out of stones the remaining ones are collected into the mancalas and the game is
+     * over, see {@link #isGameOver()}.
+     *
+     * @return seat to move next, the same one when the last stone landed in its mancala
+     */
+    public int playMove(Player player, int seat, int cupBoardIndex) {
+        final BoardState currentState = getState();
+        currentState.setActiveSeat(seat);
+
+        final int stonesInHand = currentState.getStones(cupBoardIndex);
+        final int moveLastPitIndex = currentState.playMove(cupBoardIndex);
+        playedMoves.add(new PlayedMove(
+                player.getId(),
+                pits.get(cupBoardIndex).getBoardNumberForPlayer()
+        ));
+        if (currentState.isGameOver()) {
+            // the collection empties every cup
+            for (int i = 0; i < pits.size(); i++) {
+                syncPit(currentState, i);
+            }
+        } else {
+            syncMovedPits(currentState, cupBoardIndex, stonesInHand, moveLastPitIndex);
+        }
+        stonesOutdated = true;
 
-        processCaptureMove(player, moveLastPitIndex, moveLastPit);
+        return currentState.getActiveSeat();
+    }
 
-        return moveLastPit;
+    public boolean isGameOver() {
+        return getState().isGameOver();
     }
 
-    private int sowStones(Pit selectedPit, int cupIndex) {
-        final int currentStonesNumber = selectedPit.pickUpStones();
+    /**
+     * Whether every seat has the same number of stones in its mancala.
+     */
+    public boolean isDraw() {
+        return getState().isDraw();
+    }
 
-        int currentIndex = cupIndex;
-        int stones = currentStonesNumber;
+    /**
+     * @return first seat with the most stones in its mancala
+     */
+    public int getLeadingSeat() {
+        return getState().getLeadingSeat();
+    }
 
-        while (stones > 0) {
-            currentIndex = (currentIndex + 1) % pits.size();
-            final Pit currentPit = pits.get(currentIndex);
+    /**
+     * Detached copy of the board state, changes made to it do not affect the board.
+     */
+    public BoardState toState() {
+        return getState().copy();
+    }
 
-            if (currentPit.isSowAllowedFor(selectedPit.getPlayerId())) {
-                currentPit.sowStones();
-                stones--;
-            }
+    public void applyState(BoardState newState) {
+        final BoardState currentState = getState();
+        currentState.copyFrom(newState);
+        for (int i = 0; i < pits.size(); i++) {
+            syncPit(currentState, i);
         }
+        stonesOutdated = true;
+    }
 
-        return currentIndex;
+    /**
+     * Zobrist hash of the stone counts, kept up to date incrementally by the moves.
+     */
+    public long getStonesHash() {
+        return getState().getStonesHash();
     }
 
-    private void processCaptureMove(Player player, int moveLastPitIndex, Pit moveLastPit) {
-        if (moveLastPit.isMancala()) {
-            return;
+    public long getLegalMovesMask(int seat) {
+        return getState().legalMovesMask(seat);
+    }
+
+    public int[] getLegalCupNumbers(int seat) {
+        return getState().legalCupNumbers(seat);
+    }
+
+    /**
+     * Records a pit changed directly rather than through a board move and copies its count into
+     * the engine state, if it is built already.
+     */
+    public void pitChanged(int boardIndex) {
+        changedPits.set(boardIndex);
+        if (state != null) {
+            state.setStones(boardIndex, pits.get(boardIndex).getStoneCount());
         }
+        stonesOutdated = true;
+    }
 
-        final int oppositePitIndex = lastCupIndex - moveLastPitIndex;
-        final Pit oppositePit = pits.get(oppositePitIndex);
+    /**
+     * Stones left in the cups of the pit's owner, counted by the engine state.
+     */
+    public int getOwnerCupStones(int boardIndex) {
+        final BoardState currentState = getState();
+        return currentState.getCupStones(currentState.seatOf(boardIndex));
+    }
+
+    /**
+     * Pits changed and moves played since the board was loaded or this method was last called,
+     * so only they are written back.
+     */
+    public BoardDelta takeDelta() {
+        final int[] pitIndices = changedPits.stream().toArray();
+        final int[] stoneCounts = new int[pitIndices.length];
+        for (int i = 0; i < pitIndices.length; i++) {
+            stoneCounts[i] = pits.get(pitIndices[i]).getStoneCount();
+        }
+        final BoardDelta delta = new BoardDelta(
+                id,
+                pitIndices,
+                stoneCounts,
+                storage == BoardStorage.STONES_ARRAY ? getStones().toBytes() : null,
+                movesNumber,
+                List.copyOf(playedMoves)
+        );
+        changedPits.clear();
+        movesNumber += playedMoves.size();
+        playedMoves.clear();
+        return delta;
+    }
 
-        if (isCaptureMoveRequired(player.getId(), moveLastPit, oppositePit)) {
-            makeCaptureAction(player.getMancala(), moveLastPit, oppositePit);
+    private BoardState getState() {
+        if (state == null) {
+            final int pitsPerPlayer = pits.get(pits.size() - 1).getBoardNumberForPlayer();
+            final BoardState newState = new BoardState(
+                    pits.size() / pitsPerPlayer,
+                    pitsPerPlayer - 1
+            );
+            for (int i = 0; i < pits.size(); i++) {
+                newState.setStones(i, pits.get(i).getStoneCount());
+            }
+            state = newState;
         }
+        return state;
     }
 
-    private boolean isCaptureMoveRequired(Long playerId, Pit moveLastPit, Pit oppositePit) {
-        return moveLastPit.isCup() && moveLastPit.isOwnedBy(playerId)
-                && moveLastPit.getStoneCount() == 1 && !oppositePit.isEmpty();
+    /**
+     * Syncs the pits a move may have changed: the ones from the picked up cup to the last sown
+     * pit, or all of them when the stones went round the board, and after a capture the captured
+     * cup and the mover's mancala.
+     */
+    private void syncMovedPits(
+            BoardState currentState,
+            int cupBoardIndex,
+            int stonesInHand,
+            int moveLastPitIndex
+    ) {
+        final int sowablePitsNumber = pits.size() - currentState.getPlayersNumber() + 1;
+        if (stonesInHand >= sowablePitsNumber) {
+            for (int i = 0; i < pits.size(); i++) {
+                syncPit(currentState, i);
+            }
+            return;
+        }
+        for (int i = cupBoardIndex; ; i = (i + 1) % pits.size()) {
+            syncPit(currentState, i);
+            if (i == moveLastPitIndex) {
+                break;
+            }
+        }
+        if (!currentState.isMancala(moveLastPitIndex)) {
+            final int oppositeCupIndex = currentState.oppositeCup(moveLastPitIndex);
+            if (oppositeCupIndex >= 0) {
+                syncPit(currentState, oppositeCupIndex);
+                syncPit(
+                        currentState,
+                        currentState.mancalaIndex(currentState.seatOf(cupBoardIndex))
+                );
+            }
+        }
     }
 
-    private void makeCaptureAction(Mancala mancala, Pit pit, Pit oppositePit) {
-        mancala.sowStones(pit.pickUpStones());
-        mancala.sowStones(oppositePit.pickUpStones());
+    private void syncPit(BoardState currentState, int boardIndex) {
+        final Pit pit = pits.get(boardIndex);
+        final int stoneCount = currentState.getStones(boardIndex);
+        if (pit.getStoneCount() != stoneCount) {
+            pit.syncStoneCount(stoneCount);
+            changedPits.set(boardIndex);
+        }
     }
 
     public BoardDto toDto() {
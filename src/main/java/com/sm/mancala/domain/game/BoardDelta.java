@@ -0,0 +1,22 @@
+package com.sm.mancala.domain.game;
+
+import java.util.List;
+
+/**
+ * What a board changed since it was loaded or last written: the indices and new counts of the
+ * changed pits, for a board stored as an array the whole new stones array ({@code null}
+ * otherwise), and the moves played after the first {@code movesBefore} ones.
+ */
+public record BoardDelta(
+        Long boardId,
+        int[] pitIndices,
+        int[] stoneCounts,
+        byte[] stones,
+        int movesBefore,
+        List<PlayedMove> moves
+) {
+
+    public boolean isEmpty() {
+        return pitIndices.length == 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.sm.mancala.domain.game;
+
+/**
+ * How the stone counts of a new board are persisted.
+ */
+public enum BoardStorage {
+
+    /**
+     * One {@code pit} row per cup and mancala.
+     */
+    PIT_ROWS,
+
+    /**
+     * All counts in the {@code stones} column of the {@code board} row, see {@link PitStones}.
+     */
+    STONES_ARRAY,
+
+    /**
+     * Append-only {@code game_move} rows, one per move, replayed on load from the initial counts
+     * in the {@code stones} column or from the latest {@code game_snapshot} of the game.
+     */
+    MOVE_LOG
+}
@@ -0,0 +1,152 @@
+package com.sm.mancala.domain.game;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.engine.BoardStateCodec;
+import com.sm.mancala.domain.pit.Pit;
+import com.sm.mancala.domain.player.Player;
+import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.web.model.BoardDto;
+import com.sm.mancala.web.model.GameDto;
+import com.sm.mancala.web.model.GameStatusDto;
+import com.sm.mancala.web.model.PitDto;
+import com.sm.mancala.web.model.PitTypeDto;
+import com.sm.mancala.web.model.PlayerDto;
+import com.sm.mancala.web.model.PlayersGroupDto;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Active game reduced to what is needed to show or play it without the database: the ids of the
+ * rows a move writes to, the version a move write expects and the position with the side to move
+ * in the encoding of {@link BoardStateCodec}. Immutable, so it can be shared between threads;
+ * every {@link #toGame()} builds a new detached game. Showing the game does not need the
+ * entities, {@link #toDto()} maps the compact state directly.
+ */
+public final class CompactGame {
+
+    private final Long id;
+
+    private final long version;
+
+    private final Long playersGroupId;
+
+    private final Long[] playerIds;
+
+    private final boolean botOpponent;
+
+    private final Long boardId;
+
+    private final BoardStorage storage;
+
+    // ids of the pit rows in board order, null for other storages
+    private final Long[] pitIds;
+
+    private final int movesNumber;
+
+    private final byte[] state;
+
+    private CompactGame(Game game) {
+        final PlayersGroup playersGroup = game.getPlayersGroup();
+        final List<Player> players = playersGroup.getPlayers();
+        final Board board = game.getBoard();
+
+        this.id = game.getId();
+        this.version = game.getVersion();
+        this.playersGroupId = playersGroup.getId();
+        this.playerIds = players.stream().map(Player::getId).toArray(Long[]::new);
+        this.botOpponent = players.get(players.size() - 1).isBot();
+        this.boardId = board.getId();
+        this.storage = board.getStorage();
+        this.pitIds = storage == BoardStorage.PIT_ROWS
+                ? board.getPits().stream().map(Pit::getId).toArray(Long[]::new)
+                : null;
+        this.movesNumber = board.getMovesNumber();
+        this.state = BoardStateCodec.encode(game.toState());
+    }
+
+    public static CompactGame of(Game game) {
+        if (game.getStatus() != GameStatus.ACTIVE) {
+            throw new IllegalArgumentException(
+                    String.format("Game with id = %s is already finished", game.getId())
+            );
+        }
+        return new CompactGame(game);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Game in the kept state, not attached to any persistence context: its moves are written by
+     * the ids it carries.
+     */
+    public Game toGame() {
+        final BoardState restoredState = BoardStateCodec.decode(state);
+
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(
+                playerIds.length,
+                botOpponent
+        );
+        playersGroup.setId(playersGroupId);
+        playersGroup.setActivePlayerIndex(restoredState.getActiveSeat());
+        for (int i = 0; i < playerIds.length; i++) {
+            playersGroup.getPlayers().get(i).setId(playerIds[i]);
+        }
+
+        final Board board = Board.restoreDetached(
+                boardId,
+                storage,
+                restoredState,
+                pitIds,
+                movesNumber,
+                playersGroup
+        );
+
+        final Game game = Game.createGame(playersGroup, board);
+        game.setId(id);
+        game.setVersion(version);
+        return game;
+    }
+
+    /**
+     * Same representation as {@link Game#toDto()} of the kept game, built without restoring it.
+     */
+    public GameDto toDto() {
+        final BoardState restoredState = BoardStateCodec.decode(state);
+        final int pitsPerPlayer = restoredState.getCupsNumber() + 1;
+
+        final List<PitDto> pits = new ArrayList<>(restoredState.getPitsNumber());
+        for (int i = 0; i < restoredState.getPitsNumber(); i++) {
+            pits.add(new PitDto()
+                    .id(pitIds == null ? null : pitIds[i])
+                    .playerId(playerIds[restoredState.seatOf(i)])
+                    .boardNumberForPlayer(i % pitsPerPlayer + 1)
+                    .stoneCount(restoredState.getStones(i))
+                    .type(restoredState.isMancala(i) ? PitTypeDto.MANCALA : PitTypeDto.CUP));
+        }
+
+        final List<PlayerDto> players = new ArrayList<>(playerIds.length);
+        for (int i = 0; i < playerIds.length; i++) {
+            players.add(new PlayerDto()
+                    .id(playerIds[i])
+                    .bot(botOpponent && i == playerIds.length - 1));
+        }
+
+        return new GameDto()
+                .id(id)
+                .playersGroup(new PlayersGroupDto()
+                        .id(playersGroupId)
+                        .activePlayerIndex(restoredState.getActiveSeat())
+                        .players(players))
+                .board(new BoardDto()
+                        .id(boardId)
+                        .lastCupIndex(restoredState.getLastCupIndex())
+                        .pits(pits))
+                .status(GameStatusDto.ACTIVE);
+    }
+}
@@ -1,5 +1,7 @@
 package com.sm.mancala.domain.game;
 
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.engine.ZobristKeys;
 import com.sm.mancala.domain.player.PlayersGroup;
 import com.sm.mancala.web.model.GameDto;
 import com.sm.mancala.web.model.GameStatusDto;
@@ -13,6 +15,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,7 +29,8 @@ import lombok.Setter;
 public class Game {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_seq")
+    @SequenceGenerator(name = "game_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
@@ -39,6 +44,14 @@ public class Game {
     @Enumerated(value = EnumType.STRING)
     private GameStatus status;
 
+    /**
+     * Number of move writes the game has had. It is a plain column owned by
+     * {@link com.sm.mancala.repository.GameMoveRepository#saveMoves(List)}: every write compares
+     * it with the version the moves were played on and sets the next one, so moves played on an
+     * outdated state are never written. Hibernate only inserts it with a new game.
+     */
+    private long version;
+
     public static Game createGame(PlayersGroup playersGroup, Board board) {
         final Game game = new Game();
         game.setPlayersGroup(playersGroup);
@@ -55,11 +68,74 @@ public class Game {
         this.status = status;
     }
 
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Players whose cups and mancala are taken from the board.
+     */
+    public PlayersGroup getPlayersGroup() {
+        board.attachPlayers(playersGroup);
+        return playersGroup;
+    }
+
+    public Board getBoard() {
+        board.attachPlayers(playersGroup);
+        return board;
+    }
+
+    /**
+     * How the board is persisted, known without loading its pits.
+     */
+    public BoardStorage getBoardStorage() {
+        return board.getStorage();
+    }
+
+    /**
+     * Snapshot of the board together with the active seat, detached from the entities.
+     */
+    public BoardState toState() {
+        final BoardState state = getBoard().toState();
+        state.setActiveSeat(playersGroup.getActivePlayerIndex());
+        return state;
+    }
+
+    /**
+     * Zobrist hash of the position: stone counts and the side to move.
+     */
+    public long getPositionHash() {
+        return getBoard().getStonesHash()
+                ^ ZobristKeys.seatKey(playersGroup.getActivePlayerIndex());
+    }
+
+    /**
+     * Rebuilds the position of a game stored as a move log by playing the moves that follow the
+     * latest snapshot on the rules engine, or all moves from the initial counts when there is no
+     * snapshot yet.
+     *
+     * @param snapshot position after {@code snapshotMovesNumber} moves, {@code null} for none
+     * @param tail moves played after the snapshot, in order
+     */
+    public void restore(BoardState snapshot, int snapshotMovesNumber, List<PlayedMove> tail) {
+        final BoardState state = snapshot != null ? snapshot : board.getStones().toState();
+        for (final PlayedMove move : tail) {
+            state.playMove(state.cupIndex(state.getActiveSeat(), move.cupNumber()));
+        }
+        board.restore(state, snapshotMovesNumber + tail.size());
+        playersGroup.setActivePlayerIndex(state.getActiveSeat());
+    }
+
+    public void applyState(BoardState state) {
+        getBoard().applyState(state);
+        playersGroup.setActivePlayerIndex(state.getActiveSeat());
+    }
+
     public GameDto toDto() {
         return new GameDto()
                 .id(id)
-                .playersGroup(playersGroup.toDto())
-                .board(board.toDto())
+                .playersGroup(getPlayersGroup().toDto())
+                .board(getBoard().toDto())
                 .status(GameStatusDto.valueOf(status.name().toUpperCase()));
     }
 }
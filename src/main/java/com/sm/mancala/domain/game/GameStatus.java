@@ -1,5 +1,11 @@
 package com.sm.mancala.domain.game;
 
 public enum GameStatus {
-    ACTIVE, DRAW, WIN
+    ACTIVE, DRAW, WIN,
+
+    /**
+     * Moves of the game could not be written to the database, see
+     * {@link com.sm.mancala.service.WalMoveWriter}.
+     */
+    ERRORED
 }
@@ -0,0 +1,19 @@
+package com.sm.mancala.domain.game;
+
+import com.sm.mancala.web.model.HintDto;
+
+/**
+ * Move suggested to the active player, with the evaluation of the position for that player and
+ * the depth it was searched to.
+ */
+public record Hint(Long gameId, Long activePlayerId, int cupNumber, int score, int depth) {
+
+    public HintDto toDto() {
+        return new HintDto()
+                .gameId(gameId)
+                .activePlayerId(activePlayerId)
+                .cupNumber(cupNumber)
+                .score(score)
+                .depth(depth);
+    }
+}
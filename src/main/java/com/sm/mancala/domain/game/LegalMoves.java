@@ -0,0 +1,14 @@
+package com.sm.mancala.domain.game;
+
+import com.sm.mancala.web.model.LegalMovesDto;
+import java.util.Arrays;
+
+public record LegalMoves(Long gameId, Long activePlayerId, int[] cupNumbers) {
+
+    public LegalMovesDto toDto() {
+        return new LegalMovesDto()
+                .gameId(gameId)
+                .activePlayerId(activePlayerId)
+                .cupNumbers(Arrays.stream(cupNumbers).boxed().toList());
+    }
+}
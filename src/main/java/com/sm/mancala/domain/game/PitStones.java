@@ -0,0 +1,57 @@
+package com.sm.mancala.domain.game;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.engine.BoardStateCodec;
+import java.util.Arrays;
+
+/**
+ * Immutable stone counts of all pits in board order, together with the board shape, kept in the
+ * varint encoding of {@link BoardStateCodec}: 17 bytes for a standard board in the opening. The
+ * owner and the type of every pit follow from the shape, so nothing else is stored.
+ */
+public final class PitStones {
+
+    private final byte[] encoded;
+
+    private PitStones(byte[] encoded) {
+        this.encoded = encoded;
+    }
+
+    /**
+     * Counts of the state; the active seat is not part of the stones and is not kept.
+     */
+    public static PitStones of(BoardState state) {
+        final BoardState stones = state.copy();
+        stones.setActiveSeat(0);
+        return new PitStones(BoardStateCodec.encode(stones));
+    }
+
+    public static PitStones fromBytes(byte[] encoded) {
+        // decoded once to reject corrupted values early
+        BoardStateCodec.decode(encoded);
+        return new PitStones(encoded.clone());
+    }
+
+    public byte[] toBytes() {
+        return encoded.clone();
+    }
+
+    public BoardState toState() {
+        return BoardStateCodec.decode(encoded);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof PitStones other && Arrays.equals(encoded, other.encoded);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(encoded);
+    }
+
+    @Override
+    public String toString() {
+        return toState().toString();
+    }
+}
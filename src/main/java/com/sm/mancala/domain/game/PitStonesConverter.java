@@ -0,0 +1,18 @@
+package com.sm.mancala.domain.game;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+@Converter
+public class PitStonesConverter implements AttributeConverter<PitStones, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(PitStones stones) {
+        return stones == null ? null : stones.toBytes();
+    }
+
+    @Override
+    public PitStones convertToEntityAttribute(byte[] column) {
+        return column == null ? null : PitStones.fromBytes(column);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sm.mancala.domain.game;
+
+/**
+ * Move as kept in the move log: who played it and from which of their cups.
+ */
+public record PlayedMove(Long playerId, int cupNumber) {
+}
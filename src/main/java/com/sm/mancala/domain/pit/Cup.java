@@ -28,7 +28,11 @@ public class Cup extends Pit {
     @Override
     public int pickUpStones() {
         int currentStonesNumber = getStoneCount();
+        if (currentStonesNumber == 0) {
+            return 0;
+        }
         this.stoneCount = 0;
+        notifyBoard();
         return currentStonesNumber;
     }
 
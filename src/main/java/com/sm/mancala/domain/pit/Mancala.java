@@ -21,7 +21,11 @@ public class Mancala extends Pit {
     private Player player;
 
     public Mancala(Player player, Board board) {
-        super(0, board);
+        this(0, player, board);
+    }
+
+    public Mancala(Integer stoneCount, Player player, Board board) {
+        super(stoneCount, board);
         this.player = player;
     }
 
@@ -43,6 +47,7 @@ public class Mancala extends Pit {
     @Override
     public void sowStones(int stonesNumber) {
         this.stoneCount += stonesNumber;
+        notifyBoard();
     }
 
     @Override
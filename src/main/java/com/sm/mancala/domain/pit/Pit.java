@@ -14,6 +14,7 @@ import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -24,7 +25,8 @@ import lombok.NoArgsConstructor;
 public abstract class Pit {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pit_seq")
+    @SequenceGenerator(name = "pit_seq", allocationSize = 50)
     protected Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -44,6 +46,27 @@ public abstract class Pit {
 
     public void sowStones() {
         this.stoneCount += 1;
+        notifyBoard();
+    }
+
+    /**
+     * Takes the count the board's engine state has for the pit.
+     */
+    public void syncStoneCount(int stoneCount) {
+        this.stoneCount = stoneCount;
+    }
+
+    protected void notifyBoard() {
+        if (board != null) {
+            board.pitChanged(boardIndex);
+        }
+    }
+
+    /**
+     * Stones left in the cups of the pit's owner, as counted by the board.
+     */
+    public int getOwnerCupStoneCount() {
+        return board.getOwnerCupStones(boardIndex);
     }
 
     public boolean isOwnedBy(Long playerId) {
@@ -66,6 +89,14 @@ public abstract class Pit {
 
     public abstract boolean isCup();
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public int getStoneCount() {
         return stoneCount;
     }
@@ -74,6 +105,10 @@ public abstract class Pit {
         return boardIndex;
     }
 
+    public int getBoardNumberForPlayer() {
+        return boardNumberForPlayer;
+    }
+
     public void setBoardIndex(int boardIndex) {
         this.boardIndex = boardIndex;
     }
@@ -11,9 +11,8 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToMany;
-import jakarta.persistence.OneToOne;
-import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -25,35 +24,44 @@ import lombok.Setter;
 public class Player {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_seq")
+    @SequenceGenerator(name = "player_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "players_group_id")
     private PlayersGroup playersGroup;
 
-    @OneToMany(mappedBy = "player", fetch = FetchType.LAZY)
-    @OrderBy("boardIndex ASC")
+    // not mapped: pits are owned by the board, which hands every player its own ones
+    @Transient
     private List<Cup> cups;
 
-    @OneToOne(mappedBy = "player", fetch = FetchType.LAZY)
+    @Transient
     private Mancala mancala;
 
+    // moves of a bot player are chosen by the server
+    private boolean bot;
+
     public static Player createPlayer(PlayersGroup playersGroup) {
+        return createPlayer(playersGroup, false);
+    }
+
+    public static Player createPlayer(PlayersGroup playersGroup, boolean bot) {
         final Player player = new Player();
         player.setPlayersGroup(playersGroup);
+        player.setBot(bot);
         return player;
     }
 
     public boolean isFinished() {
-        return cups.stream().allMatch(Cup::isEmpty);
+        return getCupStoneCount() == 0;
     }
 
-    public Mancala collectStonesToMancala() {
-        for (final Cup cup : cups) {
-            mancala.sowStones(cup.pickUpStones());
-        }
-        return mancala;
+    /**
+     * Total number of stones in the player's cups, kept per seat by the board's engine state.
+     */
+    public int getCupStoneCount() {
+        return mancala.getOwnerCupStoneCount();
     }
 
     public Cup getCupByNumber(int cupNumber) {
@@ -65,6 +73,10 @@ public class Player {
         return cups.get(cupNumber - 1);
     }
 
+    public boolean isBot() {
+        return bot;
+    }
+
     public Long getId() {
         return id;
     }
@@ -83,6 +95,6 @@ public class Player {
     }
 
     public PlayerDto toDto() {
-        return new PlayerDto().id(id);
+        return new PlayerDto().id(id).bot(bot);
     }
 }
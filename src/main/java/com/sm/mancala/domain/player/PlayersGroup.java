@@ -1,6 +1,5 @@
 package com.sm.mancala.domain.player;
 
-import com.sm.mancala.domain.pit.Mancala;
 import com.sm.mancala.web.model.PlayersGroupDto;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Entity;
@@ -8,6 +7,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.AccessLevel;
@@ -20,7 +20,8 @@ import lombok.Setter;
 public class PlayersGroup {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "players_group_seq")
+    @SequenceGenerator(name = "players_group_seq", allocationSize = 50)
     private Long id;
 
     private int activePlayerIndex;
@@ -29,12 +30,21 @@ public class PlayersGroup {
     private List<Player> players;
 
     public static PlayersGroup createPlayersGroup(Integer playersNumber) {
+        return createPlayersGroup(playersNumber, false);
+    }
+
+    /**
+     * Creates players group, when {@code botOpponent} is set the last player is played by the
+     * server.
+     */
+    public static PlayersGroup createPlayersGroup(Integer playersNumber, boolean botOpponent) {
         final PlayersGroup playersGroup = new PlayersGroup();
 
         final List<Player> players = new ArrayList<>(playersNumber);
         for (int i = 0; i < playersNumber; i++) {
+            final boolean bot = botOpponent && i == playersNumber - 1;
             players.add(
-                    Player.createPlayer(playersGroup)
+                    Player.createPlayer(playersGroup, bot)
             );
         }
 
@@ -53,16 +63,26 @@ public class PlayersGroup {
         return players.get(activePlayerIndex);
     }
 
-    public List<Mancala> getFinalMancalaStates() {
-        return players.stream()
-                .map(Player::collectStonesToMancala)
-                .toList();
-    }
-
     public boolean hasFinishedPlayer() {
         return players.stream().anyMatch(Player::isFinished);
     }
 
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public int getActivePlayerIndex() {
+        return activePlayerIndex;
+    }
+
+    public void setActivePlayerIndex(int activePlayerIndex) {
+        this.activePlayerIndex = activePlayerIndex;
+    }
+
     public List<Player> getPlayers() {
         return players;
     }
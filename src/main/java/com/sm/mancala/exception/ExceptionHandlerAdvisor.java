@@ -55,6 +55,12 @@ public class ExceptionHandlerAdvisor {
         return createErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex) {
+        log.error("[ExceptionHandlerAdvisor] Concurrent modification: {}", ex.getMessage());
+        return createErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
     private ResponseEntity<ErrorResponse> createErrorResponse(String message, HttpStatus status) {
         return new ResponseEntity<>(new ErrorResponse().message(message), status);
     }
@@ -1,6 +1,11 @@
 package com.sm.mancala.properties;
 
+import com.sm.mancala.domain.game.BoardStorage;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -21,4 +26,168 @@ public class GameProperties {
 
     @NotNull
     private Integer cupsNumber;
+
+    /**
+     * How new boards are persisted: a row per pit, or all stone counts in one column of the board
+     * row. Existing games keep the storage they were created with.
+     */
+    @NotNull
+    private BoardStorage boardStorage = BoardStorage.PIT_ROWS;
+
+    /**
+     * Moves between two snapshots of a game stored as a move log. Loading a game replays at most
+     * this many moves, at the cost of a snapshot row per that many moves.
+     */
+    @NotNull
+    @Positive
+    private Integer snapshotInterval = 20;
+
+    /**
+     * Times a move is played when other moves of the same game keep being written first, each
+     * time on the game as they left it. The move is rejected as a conflict after the last one.
+     */
+    @NotNull
+    @Positive
+    private Integer moveAttempts = 3;
+
+    /**
+     * Memory of the transposition table shared by all bot searches, 0 disables it.
+     */
+    @NotNull
+    @PositiveOrZero
+    private Integer transpositionTableMb = 16;
+
+    @Valid
+    @NotNull
+    private Bot bot = new Bot();
+
+    @Valid
+    @NotNull
+    private Cache cache = new Cache();
+
+    @Valid
+    @NotNull
+    private Wal wal = new Wal();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Bot {
+
+        @NotNull
+        private Algorithm algorithm = Algorithm.ALPHA_BETA;
+
+        /**
+         * Time the bot may spend on searching for one move.
+         */
+        @NotNull
+        @Positive
+        private Long timeBudgetMs = 200L;
+
+        @NotNull
+        @Positive
+        private Integer maxDepth = 32;
+
+        /**
+         * Threads the bot may search with, capped by the available processors. With 1 the search
+         * runs on the request thread, otherwise on a dedicated fork-join pool of this size, so
+         * the bot cannot take more cores than that from the request threads.
+         */
+        @NotNull
+        @Positive
+        private Integer parallelism = 1;
+
+        /**
+         * Playouts the Monte Carlo bot may run per move on top of the time budget, 0 for no
+         * limit. Lower values trade playing strength for latency.
+         */
+        @NotNull
+        @PositiveOrZero
+        private Long playouts = 0L;
+
+        /**
+         * Endgame tablebase file written by {@code EndgameTablebaseGenerator}; positions it
+         * covers are played perfectly without search. Not used when empty.
+         */
+        private String tablebasePath;
+
+        /**
+         * Opening book file written by {@code OpeningBookBuilder}; book moves are played without
+         * search. Not used when empty.
+         */
+        private String openingBookPath;
+
+        /**
+         * Hints kept by position, so players asking about the same position share one search;
+         * the least recently used ones are evicted first. 0 disables the cache.
+         */
+        @NotNull
+        @PositiveOrZero
+        private Integer hintCacheSize = 10_000;
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /**
+         * Active games kept in memory, the least recently used ones are evicted first. 0
+         * disables the cache.
+         */
+        @NotNull
+        @PositiveOrZero
+        private Integer size = 10_000;
+
+        /**
+         * Time after which a game nobody has asked for is evicted.
+         */
+        @NotNull
+        @Positive
+        private Long idleTimeoutMs = 600_000L;
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Wal {
+
+        /**
+         * Acknowledges moves once they are synced to the write-ahead log and writes them to the
+         * database in the background, instead of within the request.
+         */
+        @NotNull
+        private Boolean enabled = false;
+
+        @NotBlank
+        private String directory = "wal";
+
+        /**
+         * Logged moves written to the database in one transaction at most.
+         */
+        @NotNull
+        @Positive
+        private Integer batchSize = 100;
+
+        /**
+         * Size the log file may grow to before it is emptied, once all of its moves are in the
+         * database.
+         */
+        @NotNull
+        @Positive
+        private Integer fileSizeMb = 64;
+
+        /**
+         * Time to wait before retrying moves the database did not take for a transient reason,
+         * such as a lost connection or a timeout.
+         */
+        @NotNull
+        @Positive
+        private Long retryBackoffMs = 1_000L;
+    }
+
+    public enum Algorithm {
+        ALPHA_BETA,
+        MONTE_CARLO
+    }
 }
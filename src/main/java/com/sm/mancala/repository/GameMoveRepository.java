@@ -0,0 +1,36 @@
+package com.sm.mancala.repository;
+
+import com.sm.mancala.domain.game.Game;
+import java.util.List;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+public interface GameMoveRepository {
+
+    /**
+     * Writes what the moves changed on a loaded game: the stone counts of the touched pits, the
+     * active player, the version and the status of the game. Unlike a dirty-checking flush it
+     * issues no statement for anything else. A game stored as a move log gets its moves appended
+     * instead of the pits and the active player, and a snapshot every
+     * {@code game.snapshot-interval} moves.
+     *
+     * <p>The version of the game is compared and set with the write, no row is locked while the
+     * moves are played, and the game is given the version written. When another write has
+     * changed the game since it was loaded nothing else is written and an
+     * {@link OptimisticLockingFailureException} is thrown.
+     */
+    void saveMove(Game game);
+
+    /**
+     * Writes the changes of moves taken earlier, in order, in as few batches as possible. A write
+     * whose game is not at the version it expects is left out, with nothing of it written.
+     *
+     * @return writes left out, in order
+     */
+    List<MoveWrite> saveMoves(List<MoveWrite> writes);
+
+    /**
+     * Restores the position of a game stored as a move log from its latest snapshot and the
+     * moves that follow it.
+     */
+    void replayMoveLog(Game game);
+}
@@ -0,0 +1,168 @@
+package com.sm.mancala.repository;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.engine.BoardStateCodec;
+import com.sm.mancala.domain.game.BoardDelta;
+import com.sm.mancala.domain.game.BoardStorage;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.PlayedMove;
+import com.sm.mancala.properties.GameProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Every statement shape goes in one prepared JDBC batch, a round trip per shape for any number of
+ * pits and moves. The game versions are compared and set first, the changes of a write are only
+ * sent once its game is known to be at the version it expects.
+ */
+class GameMoveRepositoryImpl implements GameMoveRepository {
+
+    private static final String INSERT_MOVE =
+            "insert into game_move (game_id, seq, player_id, cup_number) values (?, ?, ?, ?)";
+
+    private static final String INSERT_SNAPSHOT =
+            "insert into game_snapshot (game_id, seq, state) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final GameProperties gameProperties;
+
+    GameMoveRepositoryImpl(JdbcTemplate jdbcTemplate, GameProperties gameProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.gameProperties = gameProperties;
+    }
+
+    @Override
+    public void saveMove(Game game) {
+        final MoveWrite write = MoveWrite.of(game);
+        if (!saveMoves(List.of(write)).isEmpty()) {
+            throw new OptimisticLockingFailureException(String.format(
+                    "Game with id = %s is not at version %s anymore",
+                    write.gameId(),
+                    write.version()
+            ));
+        }
+        game.setVersion(write.newVersion());
+    }
+
+    @Override
+    public List<MoveWrite> saveMoves(List<MoveWrite> writes) {
+        // a concurrent write of the same version makes the update match no row
+        final int[] versionUpdates = jdbcTemplate.batchUpdate(
+                "update game set version = ?, status = ? where id = ? and version = ?",
+                writes.stream()
+                        .map(write -> new Object[]{
+                                write.newVersion(),
+                                write.status().name(),
+                                write.gameId(),
+                                write.version()
+                        })
+                        .toList()
+        );
+
+        final List<MoveWrite> rejected = new ArrayList<>();
+        final List<Object[]> pitUpdates = new ArrayList<>();
+        final List<Object[]> stonesUpdates = new ArrayList<>();
+        final List<Object[]> activePlayerUpdates = new ArrayList<>();
+        final List<Object[]> moveRows = new ArrayList<>();
+        final List<Object[]> snapshotRows = new ArrayList<>();
+
+        for (int i = 0; i < writes.size(); i++) {
+            final MoveWrite write = writes.get(i);
+            if (versionUpdates[i] == 0) {
+                rejected.add(write);
+                continue;
+            }
+            if (write.storage() == BoardStorage.MOVE_LOG) {
+                appendMoves(write, moveRows, snapshotRows);
+                continue;
+            }
+            final BoardDelta delta = write.delta();
+            if (delta.stones() != null) {
+                if (!delta.isEmpty()) {
+                    stonesUpdates.add(new Object[]{delta.stones(), delta.boardId()});
+                }
+            } else {
+                for (int j = 0; j < delta.pitIndices().length; j++) {
+                    pitUpdates.add(new Object[]{
+                            delta.stoneCounts()[j],
+                            delta.boardId(),
+                            delta.pitIndices()[j]
+                    });
+                }
+            }
+            activePlayerUpdates.add(new Object[]{
+                    write.activePlayerIndex(),
+                    write.playersGroupId()
+            });
+        }
+
+        batchUpdate(
+                "update pit set stone_count = ? where board_id = ? and board_index = ?",
+                pitUpdates
+        );
+        batchUpdate("update board set stones = ? where id = ?", stonesUpdates);
+        batchUpdate(
+                "update players_group set active_player_index = ? where id = ?",
+                activePlayerUpdates
+        );
+        batchUpdate(INSERT_MOVE, moveRows);
+        batchUpdate(INSERT_SNAPSHOT, snapshotRows);
+        return rejected;
+    }
+
+    private void batchUpdate(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    /**
+     * One row per move, the board and the players group rows are left as created. The moves are
+     * numbered from 1 by {@code seq}, which is also the number of moves a snapshot follows.
+     */
+    private void appendMoves(
+            MoveWrite write,
+            List<Object[]> moveRows,
+            List<Object[]> snapshotRows
+    ) {
+        final BoardDelta delta = write.delta();
+        int seq = delta.movesBefore();
+        for (final PlayedMove move : delta.moves()) {
+            moveRows.add(new Object[]{write.gameId(), ++seq, move.playerId(), move.cupNumber()});
+        }
+
+        final int interval = gameProperties.getSnapshotInterval();
+        if (seq / interval > delta.movesBefore() / interval) {
+            snapshotRows.add(new Object[]{write.gameId(), seq, write.position()});
+        }
+    }
+
+    @Override
+    public void replayMoveLog(Game game) {
+        final Optional<Snapshot> snapshot = jdbcTemplate.query(
+                "select seq, state from game_snapshot where game_id = ? order by seq desc limit 1",
+                (rs, rowNum) -> new Snapshot(
+                        rs.getInt("seq"),
+                        BoardStateCodec.decode(rs.getBytes("state"))
+                ),
+                game.getId()
+        ).stream().findFirst();
+        final int snapshotSeq = snapshot.map(Snapshot::seq).orElse(0);
+
+        final List<PlayedMove> tail = jdbcTemplate.query(
+                "select player_id, cup_number from game_move where game_id = ? and seq > ? "
+                        + "order by seq",
+                (rs, rowNum) -> new PlayedMove(rs.getLong("player_id"), rs.getInt("cup_number")),
+                game.getId(),
+                snapshotSeq
+        );
+        game.restore(snapshot.map(Snapshot::state).orElse(null), snapshotSeq, tail);
+    }
+
+    private record Snapshot(int seq, BoardState state) {
+    }
+}
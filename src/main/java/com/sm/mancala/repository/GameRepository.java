@@ -1,10 +1,60 @@
 package com.sm.mancala.repository;
 
+import com.sm.mancala.domain.game.Board;
 import com.sm.mancala.domain.game.Game;
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface GameRepository extends JpaRepository<Game, Long> {
+public interface GameRepository extends JpaRepository<Game, Long>, GameMoveRepository {
 
+    /**
+     * Loads everything a move or a view of the game touches: the game with its players and board
+     * in one query, then the pits of a board stored as pit rows in a second one, or the latest
+     * snapshot and the moves after it for a board stored as a move log. Players and pits are both
+     * bags, which cannot be fetched in one query.
+     *
+     * <p>The entities are loaded read-only: the session keeps no snapshots of them and does not
+     * dirty-check them on flush, changes made by moves are written by {@link #saveMove(Game)}.
+     * The queries share one read-only transaction, joining the caller's if there is one, so the
+     * second query initializes the board of the first even without a session held open for the
+     * request.
+     */
+    @Transactional(readOnly = true)
+    default Optional<Game> findPlayableById(Long id) {
+        final Optional<Game> game = findWithPlayersById(id);
+        game.ifPresent(found -> {
+            switch (found.getBoardStorage()) {
+                case PIT_ROWS -> fetchPitRows(found.getId());
+                case MOVE_LOG -> replayMoveLog(found);
+                case STONES_ARRAY -> {
+                    // the counts come with the board row
+                }
+            }
+        });
+        return game;
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+            select g from Game g
+            join fetch g.playersGroup pg
+            join fetch pg.players
+            join fetch g.board
+            where g.id = :id""")
+    Optional<Game> findWithPlayersById(@Param("id") Long id);
+
+    /**
+     * Initializes the pit rows of the game's board, their owners are taken from the session.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select b from Game g join g.board b left join fetch b.pitRows where g.id = :id")
+    Board fetchPitRows(@Param("id") Long id);
 }
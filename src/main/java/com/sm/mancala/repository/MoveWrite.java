@@ -0,0 +1,150 @@
+package com.sm.mancala.repository;
+
+import com.sm.mancala.domain.engine.BoardStateCodec;
+import com.sm.mancala.domain.game.BoardDelta;
+import com.sm.mancala.domain.game.BoardStorage;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.domain.game.PlayedMove;
+import com.sm.mancala.domain.player.PlayersGroup;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the moves of one request write to the database, taken from the game right after
+ * them, so it can be written later: the version of the game they were played on, the board delta,
+ * the side to move, the status and, for a game stored as a move log, the position in the encoding
+ * of {@link BoardStateCodec} for a snapshot. Serialized into a few dozen bytes for the write-ahead
+ * log.
+ */
+public record MoveWrite(
+        Long gameId,
+        long version,
+        GameStatus status,
+        Long playersGroupId,
+        int activePlayerIndex,
+        BoardStorage storage,
+        BoardDelta delta,
+        byte[] position
+) {
+
+    /**
+     * Takes the delta of the game's board, so the next write only carries later changes. The
+     * game keeps its version until the write is accepted, see {@link #newVersion()}.
+     */
+    public static MoveWrite of(Game game) {
+        final PlayersGroup playersGroup = game.getPlayersGroup();
+        return new MoveWrite(
+                game.getId(),
+                game.getVersion(),
+                game.getStatus(),
+                playersGroup.getId(),
+                playersGroup.getActivePlayerIndex(),
+                game.getBoardStorage(),
+                game.getBoard().takeDelta(),
+                game.getBoardStorage() == BoardStorage.MOVE_LOG
+                        ? BoardStateCodec.encode(game.toState())
+                        : null
+        );
+    }
+
+    /**
+     * Version the write sets when the game is still at {@link #version()}.
+     */
+    public long newVersion() {
+        return version + 1;
+    }
+
+    public byte[] toBytes() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(gameId);
+            out.writeLong(version);
+            out.writeByte(status.ordinal());
+            out.writeLong(playersGroupId);
+            out.writeInt(activePlayerIndex);
+            out.writeByte(storage.ordinal());
+            out.writeLong(delta.boardId());
+            out.writeInt(delta.pitIndices().length);
+            for (int i = 0; i < delta.pitIndices().length; i++) {
+                out.writeInt(delta.pitIndices()[i]);
+                out.writeInt(delta.stoneCounts()[i]);
+            }
+            writeBytes(out, delta.stones());
+            out.writeInt(delta.movesBefore());
+            out.writeInt(delta.moves().size());
+            for (final PlayedMove move : delta.moves()) {
+                out.writeLong(move.playerId());
+                out.writeInt(move.cupNumber());
+            }
+            writeBytes(out, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static MoveWrite fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final long gameId = in.readLong();
+            final long version = in.readLong();
+            final GameStatus status = GameStatus.values()[in.readByte()];
+            final long playersGroupId = in.readLong();
+            final int activePlayerIndex = in.readInt();
+            final BoardStorage storage = BoardStorage.values()[in.readByte()];
+            final long boardId = in.readLong();
+            final int changedPitsNumber = in.readInt();
+            final int[] pitIndices = new int[changedPitsNumber];
+            final int[] stoneCounts = new int[changedPitsNumber];
+            for (int i = 0; i < changedPitsNumber; i++) {
+                pitIndices[i] = in.readInt();
+                stoneCounts[i] = in.readInt();
+            }
+            final byte[] stones = readBytes(in);
+            final int movesBefore = in.readInt();
+            final int movesNumber = in.readInt();
+            final List<PlayedMove> moves = new ArrayList<>(movesNumber);
+            for (int i = 0; i < movesNumber; i++) {
+                moves.add(new PlayedMove(in.readLong(), in.readInt()));
+            }
+            final byte[] position = readBytes(in);
+            return new MoveWrite(
+                    gameId,
+                    version,
+                    status,
+                    playersGroupId,
+                    activePlayerIndex,
+                    storage,
+                    new BoardDelta(boardId, pitIndices, stoneCounts, stones, movesBefore, moves),
+                    position
+            );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Move write is truncated", e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
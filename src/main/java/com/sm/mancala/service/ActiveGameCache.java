@@ -0,0 +1,226 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.domain.game.CompactGame;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.properties.GameProperties;
+import com.sm.mancala.web.model.GameDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of active games by id, kept as {@link CompactGame}s, so no entity outlives
+ * its persistence context. Bounded by {@code game.cache.size} games, the least recently used one
+ * is evicted first, and by {@code game.cache.idle-timeout-ms}: games nobody has asked for that
+ * long are evicted from the least recently used end on every access. Finished games are dropped.
+ * Access is synchronized, games are rebuilt or mapped from their compact state outside of the
+ * lock.
+ *
+ * <p>Publishes {@code cache.gets} tagged with the {@code hit} or {@code miss} result,
+ * {@code cache.evictions} and {@code cache.size}, all tagged {@code cache=games}.
+ */
+@Component
+public class ActiveGameCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "games";
+
+    private final int maxSize;
+
+    private final long idleTimeoutNanos;
+
+    private final LongSupplier nanoClock;
+
+    private final Map<Long, Entry> games;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public ActiveGameCache(GameProperties gameProperties) {
+        this(
+                gameProperties.getCache().getSize(),
+                gameProperties.getCache().getIdleTimeoutMs(),
+                System::nanoTime
+        );
+    }
+
+    ActiveGameCache(int maxSize, long idleTimeoutMs, LongSupplier nanoClock) {
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.nanoClock = nanoClock;
+        this.games = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return detached copy of the cached game, {@code null} when it is not cached
+     */
+    public Game get(Long gameId) {
+        final CompactGame compactGame = find(gameId);
+        return compactGame == null ? null : compactGame.toGame();
+    }
+
+    /**
+     * @return representation of the cached game, mapped from its compact state without
+     * rebuilding the game, {@code null} when it is not cached
+     */
+    public GameDto getDto(Long gameId) {
+        final CompactGame compactGame = find(gameId);
+        return compactGame == null ? null : compactGame.toDto();
+    }
+
+    /**
+     * Caches a game loaded from the database, unless a move committed meanwhile has already
+     * cached a newer state of it.
+     */
+    public void putIfAbsent(Game game) {
+        if (maxSize == 0 || game.getStatus() != GameStatus.ACTIVE) {
+            return;
+        }
+        final CompactGame compactGame = CompactGame.of(game);
+        synchronized (this) {
+            final long nowNanos = nanoClock.getAsLong();
+            evictIdle(nowNanos);
+            games.putIfAbsent(compactGame.getId(), new Entry(compactGame, nowNanos));
+        }
+    }
+
+    /**
+     * Caches the state of a game a move or its creation has just changed, or drops it when the
+     * game is finished. Within a transaction this is done after the commit, so a change rolled
+     * back is never seen by other requests; without one the change is already in the database
+     * and the cache is updated right away. A newer version cached meanwhile is kept.
+     */
+    public void update(Game game) {
+        if (maxSize == 0) {
+            return;
+        }
+        final Long gameId = game.getId();
+        final CompactGame compactGame = game.getStatus() == GameStatus.ACTIVE
+                ? CompactGame.of(game)
+                : null;
+        afterCommitOrNow(() -> {
+            synchronized (this) {
+                if (compactGame == null) {
+                    games.remove(gameId);
+                } else {
+                    final long nowNanos = nanoClock.getAsLong();
+                    evictIdle(nowNanos);
+                    final Entry cached = games.get(gameId);
+                    if (cached == null || cached.game.getVersion() <= compactGame.getVersion()) {
+                        games.put(gameId, new Entry(compactGame, nowNanos));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops a game whose cached state turned out to be outdated.
+     */
+    public synchronized void evict(Long gameId) {
+        games.remove(gameId);
+    }
+
+    synchronized int size() {
+        return games.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Games served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Games loaded from the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .description("Games evicted for the size limit or the idle timeout")
+                .register(registry);
+        Gauge.builder("cache.size", this, ActiveGameCache::size)
+                .tag("cache", CACHE_NAME)
+                .description("Games in the cache")
+                .register(registry);
+    }
+
+    private CompactGame find(Long gameId) {
+        final CompactGame compactGame;
+        synchronized (this) {
+            final long nowNanos = nanoClock.getAsLong();
+            evictIdle(nowNanos);
+            final Entry entry = games.get(gameId);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            entry.lastAccessNanos = nowNanos;
+            compactGame = entry.game;
+        }
+        hits.increment();
+        return compactGame;
+    }
+
+    // entries are in access order, so the idle ones are all at the head
+    private void evictIdle(long nowNanos) {
+        final Iterator<Entry> iterator = games.values().iterator();
+        while (iterator.hasNext()) {
+            if (nowNanos - iterator.next().lastAccessNanos < idleTimeoutNanos) {
+                return;
+            }
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    // outside of a transaction there is no commit to wait for
+    private static void afterCommitOrNow(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+
+        private final CompactGame game;
+
+        private long lastAccessNanos;
+
+        private Entry(CompactGame game, long lastAccessNanos) {
+            this.game = game;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.ai.SearchResult;
+import com.sm.mancala.domain.engine.BoardState;
+
+public interface BotService {
+
+    SearchResult chooseMove(BoardState state);
+
+    /**
+     * Move the bot would choose for the active seat, reused for positions already searched.
+     */
+    SearchResult suggestMove(BoardState state);
+}
@@ -0,0 +1,156 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.ai.AlphaBetaSearch;
+import com.sm.mancala.ai.EndgameTablebase;
+import com.sm.mancala.ai.MonteCarloTreeSearch;
+import com.sm.mancala.ai.OpeningBook;
+import com.sm.mancala.ai.ParallelAlphaBetaSearch;
+import com.sm.mancala.ai.SearchResult;
+import com.sm.mancala.ai.TranspositionTable;
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.properties.GameProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class BotServiceImpl implements BotService {
+
+    private final GameProperties gameProperties;
+
+    /**
+     * Pool of the parallel search, {@code null} when the bot searches on the request thread.
+     */
+    private final ForkJoinPool searchPool;
+
+    /**
+     * Table shared by all bot searches, {@code null} when disabled.
+     */
+    private final TranspositionTable transpositionTable;
+
+    /**
+     * Memory-mapped endgame values, {@code null} when not configured.
+     */
+    private final EndgameTablebase tablebase;
+
+    /**
+     * Opening moves loaded off-heap, {@code null} when not configured.
+     */
+    private final OpeningBook openingBook;
+
+    /**
+     * Hints by position hash, {@code null} when disabled.
+     */
+    private final HintCache hintCache;
+
+    public BotServiceImpl(GameProperties gameProperties) {
+        this.gameProperties = gameProperties;
+        final int parallelism = Math.min(
+                gameProperties.getBot().getParallelism(),
+                Runtime.getRuntime().availableProcessors()
+        );
+        this.searchPool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        final int tableMb = gameProperties.getTranspositionTableMb();
+        this.transpositionTable = tableMb > 0
+                ? new TranspositionTable(tableMb * 1024L * 1024L)
+                : null;
+        this.tablebase = openTablebase(gameProperties.getBot().getTablebasePath());
+        this.openingBook = loadOpeningBook(gameProperties.getBot().getOpeningBookPath());
+        final int hintCacheSize = gameProperties.getBot().getHintCacheSize();
+        this.hintCache = hintCacheSize > 0 ? new HintCache(hintCacheSize) : null;
+    }
+
+    @Override
+    public SearchResult chooseMove(BoardState state) {
+        final GameProperties.Bot bot = gameProperties.getBot();
+        final Optional<SearchResult> bookMove = openingBook != null
+                ? openingBook.find(state)
+                : Optional.empty();
+        if (bookMove.isPresent()) {
+            log.debug("[BotServiceImpl] Cup {} chosen from opening book",
+                    bookMove.get().cupNumber());
+            return bookMove.get();
+        }
+        if (tablebase != null && tablebase.covers(state)) {
+            final SearchResult result = tablebase.solve(state);
+            log.debug("[BotServiceImpl] Cup {} chosen from endgame tablebase with score {}",
+                    result.cupNumber(), result.score());
+            return result;
+        }
+
+        final SearchResult result = bot.getAlgorithm() == GameProperties.Algorithm.MONTE_CARLO
+                ? new MonteCarloTreeSearch(searchPool)
+                        .search(state, bot.getTimeBudgetMs(), bot.getPlayouts())
+                : searchAlphaBeta(state, bot);
+
+        log.debug("[BotServiceImpl] Cup {} chosen with score {} at depth {}, {} nodes visited",
+                result.cupNumber(), result.score(), result.depth(), result.nodes());
+        return result;
+    }
+
+    @Override
+    public SearchResult suggestMove(BoardState state) {
+        if (hintCache == null) {
+            return chooseMove(state);
+        }
+        final long positionHash = state.getPositionHash();
+        final SearchResult cached = hintCache.get(positionHash);
+        if (cached != null) {
+            log.debug("[BotServiceImpl] Hint for cup {} found in cache", cached.cupNumber());
+            return cached;
+        }
+        final SearchResult result = chooseMove(state);
+        hintCache.put(positionHash, result);
+        return result;
+    }
+
+    private SearchResult searchAlphaBeta(BoardState state, GameProperties.Bot bot) {
+        if (searchPool != null) {
+            return new ParallelAlphaBetaSearch(searchPool, bot.getMaxDepth(), transpositionTable)
+                    .search(state, bot.getTimeBudgetMs());
+        }
+        return new AlphaBetaSearch(bot.getMaxDepth(), transpositionTable)
+                .search(state, bot.getTimeBudgetMs());
+    }
+
+    private static EndgameTablebase openTablebase(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            final EndgameTablebase tablebase = EndgameTablebase.open(Path.of(path));
+            log.info("[BotServiceImpl] Endgame tablebase with up to {} stones mapped from {}",
+                    tablebase.getMaxStones(), path);
+            return tablebase;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Endgame tablebase cannot be read: " + path, e);
+        }
+    }
+
+    private static OpeningBook loadOpeningBook(String path) {
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        try {
+            final OpeningBook book = OpeningBook.load(Path.of(path));
+            log.info("[BotServiceImpl] Opening book with {} slots loaded from {}",
+                    book.capacity(), path);
+            return book;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Opening book cannot be read: " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (searchPool != null) {
+            searchPool.shutdownNow();
+        }
+    }
+}
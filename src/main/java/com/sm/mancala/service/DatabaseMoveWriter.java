@@ -0,0 +1,35 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.repository.GameRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the moves to the database within the request's transaction.
+ */
+@Component
+@ConditionalOnProperty(
+        prefix = "game.wal",
+        name = "enabled",
+        havingValue = "false",
+        matchIfMissing = true
+)
+public class DatabaseMoveWriter implements MoveWriter {
+
+    private final GameRepository gameRepository;
+
+    public DatabaseMoveWriter(GameRepository gameRepository) {
+        this.gameRepository = gameRepository;
+    }
+
+    @Override
+    public void write(Game game) {
+        gameRepository.saveMove(game);
+    }
+
+    @Override
+    public void awaitWritten(Long gameId) {
+        // written already
+    }
+}
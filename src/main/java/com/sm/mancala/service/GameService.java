@@ -2,13 +2,30 @@ package com.sm.mancala.service;
 
 import com.sm.mancala.domain.game.Game;
 import com.sm.mancala.domain.game.GameMoveResultData;
+import com.sm.mancala.domain.game.Hint;
+import com.sm.mancala.domain.game.LegalMoves;
+import com.sm.mancala.web.model.GameDto;
 import com.sm.mancala.web.model.GameMove;
+import java.util.List;
 
 public interface GameService {
 
     GameMoveResultData processMove(GameMove gameMove);
 
-    Game createGame(Integer playersNumber, Integer stonesPerCup);
+    Game createGame(Integer playersNumber, Integer stonesPerCup, boolean botOpponent);
+
+    List<Game> createGames(
+            Integer playersNumber,
+            Integer stonesPerCup,
+            boolean botOpponent,
+            int gamesNumber
+    );
 
     Game getGameById(Long gameId);
+
+    GameDto getGameDtoById(Long gameId);
+
+    LegalMoves getLegalMoves(Long gameId);
+
+    Hint getHint(Long gameId);
 }
@@ -1,24 +1,29 @@
 package com.sm.mancala.service;
 
+import com.sm.mancala.ai.SearchResult;
 import com.sm.mancala.domain.game.Board;
 import com.sm.mancala.domain.game.Game;
 import com.sm.mancala.domain.game.GameMoveResult;
 import com.sm.mancala.domain.game.GameMoveResultData;
 import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.domain.game.Hint;
+import com.sm.mancala.domain.game.LegalMoves;
 import com.sm.mancala.domain.pit.Cup;
-import com.sm.mancala.domain.pit.Mancala;
-import com.sm.mancala.domain.pit.Pit;
 import com.sm.mancala.domain.player.Player;
 import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.exception.ConflictException;
 import com.sm.mancala.exception.GameRuleException;
 import com.sm.mancala.exception.NotFoundException;
 import com.sm.mancala.properties.GameProperties;
 import com.sm.mancala.repository.GameRepository;
+import com.sm.mancala.web.model.GameDto;
 import com.sm.mancala.web.model.GameMove;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class GameServiceImpl implements GameService {
@@ -27,49 +32,190 @@ public class GameServiceImpl implements GameService {
 
     private final GameProperties gameProperties;
 
-    public GameServiceImpl(GameRepository gameRepository, GameProperties gameProperties) {
+    private final BotService botService;
+
+    private final ActiveGameCache activeGameCache;
+
+    private final MoveWriter moveWriter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public GameServiceImpl(
+            GameRepository gameRepository,
+            GameProperties gameProperties,
+            BotService botService,
+            ActiveGameCache activeGameCache,
+            MoveWriter moveWriter,
+            TransactionTemplate transactionTemplate
+    ) {
         this.gameRepository = gameRepository;
         this.gameProperties = gameProperties;
+        this.botService = botService;
+        this.activeGameCache = activeGameCache;
+        this.moveWriter = moveWriter;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
     @Override
-    public Game createGame(Integer playersNumber, Integer stonesPerCup) {
+    public Game createGame(Integer playersNumber, Integer stonesPerCup, boolean botOpponent) {
         validatePlayersNumber(playersNumber);
-        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        final Game game = gameRepository.save(newGame(playersNumber, stonesPerCup, botOpponent));
+        // clients usually poll a game right after creating it
+        activeGameCache.update(game);
+        return game;
+    }
 
-        final Board board = Board.createBoardForPlayers(
-                playersGroup,
-                gameProperties.getCupsNumber(),
-                stonesPerCup
+    /**
+     * Identifiers come from pooled sequences, so the games are inserted in JDBC batches on
+     * commit, a few statements per entity type rather than a round trip per row.
+     */
+    @Transactional
+    @Override
+    public List<Game> createGames(
+            Integer playersNumber,
+            Integer stonesPerCup,
+            boolean botOpponent,
+            int gamesNumber
+    ) {
+        validatePlayersNumber(playersNumber);
+        final List<Game> games = new ArrayList<>(gamesNumber);
+        for (int i = 0; i < gamesNumber; i++) {
+            games.add(newGame(playersNumber, stonesPerCup, botOpponent));
+        }
+        return gameRepository.saveAll(games);
+    }
+
+    /**
+     * Active games are served from the cache when they are there, a game loaded from the
+     * database is cached for the next requests. Moves of the game still on their way to the
+     * database are waited for before loading it.
+     */
+    @Override
+    public Game getGameById(Long gameId) {
+        final Game cached = activeGameCache.get(gameId);
+        if (cached != null) {
+            return cached;
+        }
+        return loadGame(gameId);
+    }
+
+    /**
+     * Same as {@link #getGameById(Long)}, but a cached game is shown straight from its compact
+     * state, as showing it plays nothing on it.
+     */
+    @Override
+    public GameDto getGameDtoById(Long gameId) {
+        final GameDto cached = activeGameCache.getDto(gameId);
+        if (cached != null) {
+            return cached;
+        }
+        return loadGame(gameId).toDto();
+    }
+
+    private Game loadGame(Long gameId) {
+        moveWriter.awaitWritten(gameId);
+        final Game game = gameRepository.findPlayableById(gameId).orElseThrow(
+                () -> new NotFoundException(String.format("Game with id = %s not found", gameId))
         );
+        activeGameCache.putIfAbsent(game);
+        return game;
+    }
 
-        final Game game = Game.createGame(playersGroup, board);
+    @Override
+    public LegalMoves getLegalMoves(Long gameId) {
+        final Game game = getGameById(gameId);
+        final PlayersGroup playersGroup = game.getPlayersGroup();
+        final Long activePlayerId = playersGroup.getActivePlayer().getId();
 
-        return gameRepository.save(game);
+        if (game.getStatus() != GameStatus.ACTIVE) {
+            return new LegalMoves(gameId, activePlayerId, new int[0]);
+        }
+
+        return new LegalMoves(
+                gameId,
+                activePlayerId,
+                game.getBoard().getLegalCupNumbers(playersGroup.getActivePlayerIndex())
+        );
     }
 
+    /**
+     * Runs outside of a transaction: the game is read in one of its own when it is not cached,
+     * and no connection is held during the search.
+     */
     @Override
-    public Game getGameById(Long gameId) {
-        return gameRepository.findById(gameId).orElseThrow(
-                () -> new NotFoundException(String.format("Game with id = %s not found", gameId))
+    public Hint getHint(Long gameId) {
+        final Game game = getGameById(gameId);
+        if (game.getStatus() != GameStatus.ACTIVE) {
+            throw new GameRuleException(
+                    String.format("Game with id = %s is already finished", gameId)
+            );
+        }
+
+        final SearchResult result = botService.suggestMove(game.toState());
+        return new Hint(
+                gameId,
+                game.getPlayersGroup().getActivePlayer().getId(),
+                result.cupNumber(),
+                result.score(),
+                result.depth()
         );
     }
 
-    @Transactional
+    /**
+     * Concurrent moves of a game are not serialized by locks: each is played on the version of
+     * the game it has read, and the write compares and sets that version. A move that lost the
+     * race is played again on the game as the winner left it, up to {@code game.move-attempts}
+     * times; it may be no longer valid by then. The moves, bot replies included, are played on
+     * the detached game before the transaction of the write is opened, so no connection is held
+     * during the bot's search.
+     */
     @Override
     public GameMoveResultData processMove(GameMove gameMove) {
+        final Long gameId = gameMove.getGameId();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final GameMoveResultData moveResultData = playMove(gameMove);
+                return transactionTemplate.execute(status -> {
+                    moveWriter.write(moveResultData.game());
+                    activeGameCache.update(moveResultData.game());
+                    return moveResultData;
+                });
+            } catch (OptimisticLockingFailureException e) {
+                activeGameCache.evict(gameId);
+                if (attempt >= gameProperties.getMoveAttempts()) {
+                    throw new ConflictException(String.format(
+                            "Game with id = %s is changed by concurrent moves, try again", gameId
+                    ));
+                }
+            }
+        }
+    }
+
+    private GameMoveResultData playMove(GameMove gameMove) {
         final Game game = getGameById(gameMove.getGameId());
 
-        final GameMoveResultData moveResultData = handleMoveAction(
+        return handleMoveAction(
                 game,
                 gameMove.getPlayerId(),
                 gameMove.getCupNumber()
         );
+    }
 
-        gameRepository.save(moveResultData.game());
+    private Game newGame(Integer playersNumber, Integer stonesPerCup, boolean botOpponent) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(
+                playersNumber,
+                botOpponent
+        );
 
-        return moveResultData;
+        final Board board = Board.createBoardForPlayers(
+                playersGroup,
+                gameProperties.getCupsNumber(),
+                stonesPerCup,
+                gameProperties.getBoardStorage()
+        );
+
+        return Game.createGame(playersGroup, board);
     }
 
     private void validatePlayersNumber(Integer playersNumber) {
@@ -81,7 +227,17 @@ public class GameServiceImpl implements GameService {
     }
 
     private GameMoveResultData handleMoveAction(Game game, Long playerId, Integer cupNumber) {
-        final GameMoveResult gameMoveResult = makeMove(game, playerId, cupNumber);
+        validateActiveGame(game);
+        GameMoveResult gameMoveResult = makeMove(game, playerId, cupNumber);
+
+        // bot replies are applied right away, so the response is the next human turn
+        while (game.getStatus() == GameStatus.ACTIVE
+                && game.getPlayersGroup().getActivePlayer().isBot()) {
+            final Player bot = game.getPlayersGroup().getActivePlayer();
+            final int botCupNumber = botService.chooseMove(game.toState()).cupNumber();
+            gameMoveResult = makeMove(game, bot.getId(), botCupNumber);
+        }
+
         return new GameMoveResultData(gameMoveResult, game);
     }
 
@@ -94,17 +250,30 @@ public class GameServiceImpl implements GameService {
         validateCupMoveEligibility(cup, cupNumber);
 
         final Board board = game.getBoard();
-        final Pit lastPit = board.makeMove(activePlayer, cup.getBoardIndex());
+        final int nextSeat = board.playMove(
+                activePlayer,
+                playersGroup.getActivePlayerIndex(),
+                cup.getBoardIndex()
+        );
 
-        if (playersGroup.hasFinishedPlayer()) {
+        if (board.isGameOver()) {
             return processGameFinalResult(game);
         }
 
+        playersGroup.setActivePlayerIndex(nextSeat);
         return GameMoveResult.builder()
-                .activePlayerId(getNextActivePlayerId(playerId, lastPit, playersGroup))
+                .activePlayerId(playersGroup.getActivePlayer().getId())
                 .build();
     }
 
+    private void validateActiveGame(Game game) {
+        if (game.getStatus() != GameStatus.ACTIVE) {
+            throw new GameRuleException(
+                    String.format("Game with id = %s is not active", game.getId())
+            );
+        }
+    }
+
     private void validateActivePlayer(Long activePlayerId, Long currentPlayerId, Long gameId) {
         if (!activePlayerId.equals(currentPlayerId)) {
             throw new GameRuleException(String.format(
@@ -123,40 +292,21 @@ public class GameServiceImpl implements GameService {
         }
     }
 
+    /**
+     * The remaining stones are collected by the move that finished the game. It is a draw only
+     * when every mancala holds the same number of stones, otherwise the first player with the most
+     * stones wins.
+     */
     private GameMoveResult processGameFinalResult(Game game) {
-        final PlayersGroup playersGroup = game.getPlayersGroup();
-        final List<Mancala> finalMancalaStates = playersGroup.getFinalMancalaStates();
-
-        game.setStatus(
-                isFinishedDraw(finalMancalaStates) ? GameStatus.DRAW : GameStatus.WIN
-        );
+        final Board board = game.getBoard();
+        game.setStatus(board.isDraw() ? GameStatus.DRAW : GameStatus.WIN);
 
         final GameMoveResult moveResult = new GameMoveResult();
-        if (game.getStatus().equals(GameStatus.WIN)) {
-            moveResult.setWinPlayerId(determineGameWinner(finalMancalaStates));
+        if (game.getStatus() == GameStatus.WIN) {
+            moveResult.setWinPlayerId(
+                    game.getPlayersGroup().getPlayers().get(board.getLeadingSeat()).getId()
+            );
         }
         return moveResult;
     }
-
-    private boolean isFinishedDraw(List<Mancala> finalMancalaStates) {
-        return finalMancalaStates.stream()
-                .map(Mancala::getStoneCount)
-                .distinct()
-                .count() == 1;
-    }
-
-    private Long determineGameWinner(List<Mancala> finalMancalaStates) {
-        final Mancala winnerMancala = finalMancalaStates.stream()
-                .max(Comparator.comparingInt(Mancala::getStoneCount))
-                .orElseThrow(() -> new NotFoundException("Winners' mancala not found"));
-
-        return winnerMancala.getPlayerId();
-    }
-
-    private Long getNextActivePlayerId(Long playerId, Pit lastPit, PlayersGroup playersGroup) {
-        if (lastPit.isMancala() && lastPit.isOwnedBy(playerId)) {
-            return playerId;
-        }
-        return playersGroup.moveToNextPlayer().getId();
-    }
 }
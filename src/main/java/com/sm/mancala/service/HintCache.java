@@ -0,0 +1,35 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.ai.SearchResult;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Search results by position hash, bounded to a number of entries: the least recently used one
+ * is evicted first. Access is synchronized, searches run outside of the lock.
+ */
+class HintCache {
+
+    private final Map<Long, SearchResult> results;
+
+    HintCache(int maxSize) {
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SearchResult> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized SearchResult get(long positionHash) {
+        return results.get(positionHash);
+    }
+
+    synchronized void put(long positionHash, SearchResult result) {
+        results.put(positionHash, result);
+    }
+
+    synchronized int size() {
+        return results.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.domain.game.Game;
+
+/**
+ * Persists the moves a request has played on a game.
+ */
+public interface MoveWriter {
+
+    /**
+     * Makes the changes of the moves played on the game since it was loaded or last written
+     * durable. They may reach the database later, see {@link #awaitWritten(Long)}.
+     */
+    void write(Game game);
+
+    /**
+     * Waits until every move written for the game is in the database, so it can be loaded from
+     * there.
+     */
+    void awaitWritten(Long gameId);
+}
@@ -0,0 +1,489 @@
+package com.sm.mancala.service;
+
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.properties.GameProperties;
+import com.sm.mancala.repository.GameRepository;
+import com.sm.mancala.repository.MoveWrite;
+import com.sm.mancala.wal.WriteAheadLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Acknowledges moves once they are in the write-ahead log, the database is written behind.
+ *
+ * <p>A request appends its {@link MoveWrite} to the log and waits only for the group
+ * {@code fsync} it joins. Synced entries are queued in log order for a single applier thread,
+ * which writes up to {@code game.wal.batch-size} of them with
+ * {@link GameRepository#saveMoves(List)} in one transaction that also advances the
+ * {@code wal_checkpoint} row to the last of them.
+ *
+ * <p>A batch failing on a connection, a timeout or another transient error is retried after
+ * {@code game.wal.retry-backoff-ms}. Any other failure is blamed on an entry of the batch: the
+ * batch is split in halves until the entries that fail on their own are found. Those, and the
+ * entries whose game is not at the version they expect, are moved to the {@code wal_dead_letter}
+ * table with the checkpoint advanced past them, and their games are marked
+ * {@link GameStatus#ERRORED} and evicted from the cache, so the other games keep going.
+ *
+ * <p>On start the entries after the checkpoint, written but not applied before a crash, are
+ * applied before any new move. A log with entries but no checkpoint row belongs to another
+ * database, or the checkpoint is lost, so the start fails rather than guess which entries were
+ * applied. Requests loading a game from the database first wait for its queued moves with
+ * {@link #awaitWritten(Long)}.
+ *
+ * <p>The version every move write expects is checked against the versions logged before, kept in
+ * memory for every game written since the start.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "game.wal", name = "enabled", havingValue = "true")
+public class WalMoveWriter implements MoveWriter {
+
+    private static final long AWAIT_TIMEOUT_MS = 30_000L;
+
+    static final String LOG_FILE_NAME = "moves.wal";
+
+    private static final int ERROR_LENGTH = 1000;
+
+    private final GameRepository gameRepository;
+
+    private final ActiveGameCache activeGameCache;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final GameProperties.Wal walProperties;
+
+    private final WriteAheadLog writeAheadLog;
+
+    private final Object lock = new Object();
+
+    // synced entries not applied yet, in log order
+    private final Deque<PendingWrite> queue = new ArrayDeque<>();
+
+    // LSN of the last queued entry of every game with queued entries
+    private final Map<Long, Long> lastLsnByGame = new HashMap<>();
+
+    // version every game with moves logged but not applied yet has once they are applied
+    private final Map<Long, Long> loggedVersions = new HashMap<>();
+
+    private long appliedLsn;
+
+    private boolean closed;
+
+    private Thread applier;
+
+    @Autowired
+    public WalMoveWriter(
+            GameRepository gameRepository,
+            ActiveGameCache activeGameCache,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            GameProperties gameProperties
+    ) {
+        this(
+                gameRepository,
+                activeGameCache,
+                jdbcTemplate,
+                transactionTemplate,
+                gameProperties.getWal()
+        );
+    }
+
+    WalMoveWriter(
+            GameRepository gameRepository,
+            ActiveGameCache activeGameCache,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            GameProperties.Wal walProperties
+    ) {
+        this.gameRepository = gameRepository;
+        this.activeGameCache = activeGameCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.walProperties = walProperties;
+        final Path file = Path.of(walProperties.getDirectory(), LOG_FILE_NAME);
+        try {
+            this.writeAheadLog = new WriteAheadLog(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Write-ahead log cannot be opened: " + file, e);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        final List<WriteAheadLog.Entry> entries = writeAheadLog.getRecoveredEntries();
+        final long recoveredLsn = entries.isEmpty() ? 0 : entries.get(entries.size() - 1).lsn();
+        final Long checkpoint = jdbcTemplate.queryForList(
+                "select lsn from wal_checkpoint where id = 1",
+                Long.class
+        ).stream().findFirst().orElse(null);
+
+        if (checkpoint == null) {
+            if (!entries.isEmpty()) {
+                throw new IllegalStateException(String.format(
+                        "No write-ahead log checkpoint in the database, the %s entries of %s "
+                                + "may not be applied to it",
+                        entries.size(),
+                        Path.of(walProperties.getDirectory(), LOG_FILE_NAME)
+                ));
+            }
+            jdbcTemplate.update("insert into wal_checkpoint (id, lsn) values (1, 0)");
+            appliedLsn = 0;
+        } else {
+            appliedLsn = checkpoint;
+            final List<WriteAheadLog.Entry> unapplied = entries.stream()
+                    .filter(entry -> entry.lsn() > checkpoint)
+                    .toList();
+            enqueue(unapplied);
+            // a transient failure fails the start, the entries stay for the next one
+            while (!queue.isEmpty()) {
+                apply(nextBatch());
+            }
+            if (!unapplied.isEmpty()) {
+                log.info("[WalMoveWriter] {} entries of the write-ahead log replayed on start",
+                        unapplied.size());
+            }
+            appliedLsn = Math.max(checkpoint, recoveredLsn);
+        }
+
+        writeAheadLog.start(appliedLsn, this::enqueue);
+        applier = new Thread(this::applyLoop, "wal-applier");
+        applier.setDaemon(true);
+        applier.start();
+    }
+
+    /**
+     * The version the moves were played on is compared with the one the moves logged before
+     * leave the game at, or with the one in the database when all of them are applied, so a move
+     * that lost a race is rejected before it is logged rather than when it is applied.
+     */
+    @Override
+    public void write(Game game) {
+        final MoveWrite write = MoveWrite.of(game);
+        final Long previousVersion = reserveVersion(write);
+        try {
+            writeAheadLog.append(write.toBytes());
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                if (previousVersion == null) {
+                    loggedVersions.remove(write.gameId());
+                } else {
+                    loggedVersions.put(write.gameId(), previousVersion);
+                }
+            }
+            throw e;
+        }
+        game.setVersion(write.newVersion());
+    }
+
+    @Override
+    public void awaitWritten(Long gameId) {
+        final long deadlineNanos = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(AWAIT_TIMEOUT_MS);
+        synchronized (lock) {
+            final Long lsn = lastLsnByGame.get(gameId);
+            while (lsn != null && appliedLsn < lsn) {
+                final long remainingMs = TimeUnit.NANOSECONDS.toMillis(
+                        deadlineNanos - System.nanoTime()
+                );
+                if (remainingMs <= 0) {
+                    throw new IllegalStateException(String.format(
+                            "Moves of game with id = %s are not written to the database", gameId
+                    ));
+                }
+                try {
+                    lock.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for moves to be written");
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting moves and applies the ones logged so far. Those that cannot be applied are
+     * left to the replay on the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        writeAheadLog.close();
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        if (applier != null) {
+            try {
+                applier.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    int getLoggedGamesNumber() {
+        synchronized (lock) {
+            return loggedVersions.size();
+        }
+    }
+
+    /**
+     * @return version the game has once the moves logged before are applied, {@code null} when
+     * there are none and the database version was checked
+     */
+    private Long reserveVersion(MoveWrite write) {
+        Long databaseVersion = null;
+        long databaseVersionAppliedLsn = -1;
+        while (true) {
+            synchronized (lock) {
+                final Long previousVersion = loggedVersions.get(write.gameId());
+                // a move of the game applied since the read would have been logged first
+                final boolean databaseVersionCurrent = databaseVersion != null
+                        && databaseVersionAppliedLsn == appliedLsn;
+                if (previousVersion != null || databaseVersionCurrent) {
+                    final long currentVersion = previousVersion != null
+                            ? previousVersion
+                            : databaseVersion;
+                    if (currentVersion != write.version()) {
+                        throw new OptimisticLockingFailureException(String.format(
+                                "Game with id = %s is not at version %s anymore",
+                                write.gameId(),
+                                write.version()
+                        ));
+                    }
+                    loggedVersions.put(write.gameId(), write.newVersion());
+                    return previousVersion;
+                }
+                databaseVersionAppliedLsn = appliedLsn;
+            }
+            databaseVersion = jdbcTemplate.queryForObject(
+                    "select version from game where id = ?",
+                    Long.class,
+                    write.gameId()
+            );
+        }
+    }
+
+    // called by the log's sync thread, so the entries come in log order
+    private void enqueue(List<WriteAheadLog.Entry> entries) {
+        synchronized (lock) {
+            for (final WriteAheadLog.Entry entry : entries) {
+                final MoveWrite write = MoveWrite.fromBytes(entry.payload());
+                queue.add(new PendingWrite(entry.lsn(), write));
+                lastLsnByGame.put(write.gameId(), entry.lsn());
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void applyLoop() {
+        while (true) {
+            final List<PendingWrite> batch;
+            synchronized (lock) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                batch = nextBatch();
+            }
+
+            try {
+                apply(batch);
+            } catch (RuntimeException e) {
+                final long lastLsn = batch.get(batch.size() - 1).lsn();
+                synchronized (lock) {
+                    if (closed) {
+                        log.warn("[WalMoveWriter] Entries up to {} left for the replay on start",
+                                lastLsn, e);
+                        return;
+                    }
+                    log.error("[WalMoveWriter] Entries up to {} not applied, retrying in {} ms",
+                            lastLsn, walProperties.getRetryBackoffMs(), e);
+                    try {
+                        lock.wait(walProperties.getRetryBackoffMs());
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                continue;
+            }
+            truncateLog();
+        }
+    }
+
+    private List<PendingWrite> nextBatch() {
+        synchronized (lock) {
+            final List<PendingWrite> batch = new ArrayList<>();
+            final Iterator<PendingWrite> iterator = queue.iterator();
+            while (iterator.hasNext() && batch.size() < walProperties.getBatchSize()) {
+                batch.add(iterator.next());
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Applies entries from the head of the queue, or moves those that cannot be applied to the
+     * dead letters. Only a transient failure is thrown, with the entries before the failed ones
+     * applied already.
+     */
+    private void apply(List<PendingWrite> batch) {
+        final List<MoveWrite> rejected;
+        try {
+            rejected = applyBatch(batch);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            if (batch.size() == 1) {
+                deadLetter(batch.get(0), e.toString());
+                return;
+            }
+            final int middle = batch.size() / 2;
+            apply(batch.subList(0, middle));
+            apply(batch.subList(middle, batch.size()));
+            return;
+        }
+        for (final MoveWrite write : rejected) {
+            log.error("[WalMoveWriter] Game with id = {} was not at version {}, its move write "
+                    + "is dead-lettered and the game failed", write.gameId(), write.version());
+            failGame(write.gameId());
+        }
+        applied(batch);
+    }
+
+    /**
+     * Writes the batch with the checkpoint. Writes whose game is not at the version they expect
+     * are dead-lettered in the same transaction.
+     */
+    private List<MoveWrite> applyBatch(List<PendingWrite> batch) {
+        final long lastLsn = batch.get(batch.size() - 1).lsn();
+        return transactionTemplate.execute(status -> {
+            final List<MoveWrite> rejected = gameRepository.saveMoves(
+                    batch.stream().map(PendingWrite::write).toList()
+            );
+            for (final PendingWrite pending : batch) {
+                if (rejected.contains(pending.write())) {
+                    insertDeadLetter(pending, String.format(
+                            "Game with id = %s is not at version %s anymore",
+                            pending.write().gameId(),
+                            pending.write().version()
+                    ));
+                }
+            }
+            jdbcTemplate.update("update wal_checkpoint set lsn = ? where id = 1", lastLsn);
+            return rejected;
+        });
+    }
+
+    private void deadLetter(PendingWrite pending, String error) {
+        log.error("[WalMoveWriter] Entry {} of game with id = {} cannot be applied, it is "
+                + "dead-lettered and the game failed: {}", pending.lsn(),
+                pending.write().gameId(), error);
+        transactionTemplate.executeWithoutResult(status -> {
+            insertDeadLetter(pending, error);
+            jdbcTemplate.update("update wal_checkpoint set lsn = ? where id = 1", pending.lsn());
+        });
+        failGame(pending.write().gameId());
+        applied(List.of(pending));
+    }
+
+    /**
+     * Keeps the entry and marks its game errored. The version is moved on, so any write of the
+     * game logged after it is rejected as well.
+     */
+    private void insertDeadLetter(PendingWrite pending, String error) {
+        jdbcTemplate.update(
+                "insert into wal_dead_letter (lsn, game_id, payload, error) values (?, ?, ?, ?)",
+                pending.lsn(),
+                pending.write().gameId(),
+                pending.write().toBytes(),
+                error.length() > ERROR_LENGTH ? error.substring(0, ERROR_LENGTH) : error
+        );
+        jdbcTemplate.update(
+                "update game set status = ?, version = version + 1 where id = ?",
+                GameStatus.ERRORED.name(),
+                pending.write().gameId()
+        );
+    }
+
+    private void applied(List<PendingWrite> batch) {
+        synchronized (lock) {
+            for (final PendingWrite applied : batch) {
+                queue.removeFirst();
+                final Long gameId = applied.write().gameId();
+                // a move logged meanwhile keeps the version it leaves the game at
+                if (lastLsnByGame.remove(gameId, applied.lsn())) {
+                    loggedVersions.remove(gameId, applied.write().newVersion());
+                }
+            }
+            appliedLsn = batch.get(batch.size() - 1).lsn();
+            lock.notifyAll();
+        }
+    }
+
+    // the next request loads the game as the database has it, once the entry counts as applied
+    private void failGame(Long gameId) {
+        synchronized (lock) {
+            loggedVersions.remove(gameId);
+        }
+        activeGameCache.evict(gameId);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void truncateLog() {
+        final long appliedUpTo;
+        synchronized (lock) {
+            appliedUpTo = appliedLsn;
+        }
+        try {
+            writeAheadLog.truncateIfApplied(
+                    appliedUpTo,
+                    walProperties.getFileSizeMb() * 1024L * 1024L
+            );
+        } catch (IOException e) {
+            log.warn("[WalMoveWriter] Write-ahead log cannot be truncated", e);
+        }
+    }
+
+    private record PendingWrite(long lsn, MoveWrite write) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.sm.mancala.simulation;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.player.PlayersGroup;
+
+/**
+ * Counts the move sequences of a given length from a position ("perft"), exercising every sowing,
+ * capture, extra turn and game end on the way. Sequences that end the game before the depth is
+ * reached are not counted. Known counts for the initial positions are kept as test fixtures, so a
+ * change in the rules shows up as a different number, and the time it takes measures the
+ * throughput of the engine.
+ */
+public final class Perft {
+
+    private final BoardState[] stack;
+
+    public Perft(BoardState root, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative: " + depth);
+        }
+        this.stack = new BoardState[depth + 1];
+        for (int ply = 0; ply <= depth; ply++) {
+            stack[ply] = root.copy();
+        }
+    }
+
+    /**
+     * Initial position of a new game, as set up by the game service.
+     */
+    public static BoardState initialPosition(int playersNumber, int cupsNumber, int stonesPerCup) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        return Board.createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup).toState();
+    }
+
+    /**
+     * @return number of move sequences of exactly {@code depth} moves
+     */
+    public long count() {
+        return count(0, stack.length - 1);
+    }
+
+    private long count(int ply, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        final BoardState state = stack[ply];
+        if (state.isGameOver()) {
+            return 0;
+        }
+        final BoardState child = stack[ply + 1];
+        final int seat = state.getActiveSeat();
+        long nodes = 0;
+        for (long mask = state.legalMovesMask(seat); mask != 0; mask &= mask - 1) {
+            child.copyFrom(state);
+            child.playMove(state.cupIndex(seat, Long.numberOfTrailingZeros(mask) + 1));
+            nodes += count(ply + 1, depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Prints the counts and nodes per second for depths 1 to {@code --depth} (10 by default);
+     * {@code --players}, {@code --cups} and {@code --stones} select the initial position.
+     */
+    public static void main(String[] args) {
+        int depth = 10;
+        int playersNumber = 2;
+        int cupsNumber = 6;
+        int stonesPerCup = 4;
+        for (final String arg : args) {
+            final String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Option expected as --name=value: " + arg);
+            }
+            final int value = Integer.parseInt(option[1]);
+            switch (option[0]) {
+                case "--depth" -> depth = value;
+                case "--players" -> playersNumber = value;
+                case "--cups" -> cupsNumber = value;
+                case "--stones" -> stonesPerCup = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        final BoardState root = initialPosition(playersNumber, cupsNumber, stonesPerCup);
+        for (int d = 1; d <= depth; d++) {
+            final long startNanos = System.nanoTime();
+            final long nodes = new Perft(root, d).count();
+            final long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+            System.out.printf("perft(%d) = %d in %d ms, %.0f nodes/s%n",
+                    d, nodes, elapsedNanos / 1_000_000, nodes * 1e9 / elapsedNanos);
+        }
+    }
+}
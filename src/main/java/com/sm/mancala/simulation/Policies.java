@@ -0,0 +1,107 @@
+package com.sm.mancala.simulation;
+
+import com.sm.mancala.ai.AlphaBetaSearch;
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Policies available to the simulator, by name:
+ * <ul>
+ *     <li>{@code random} - uniformly random legal move;</li>
+ *     <li>{@code greedy} - move with the best immediate mancala gain;</li>
+ *     <li>{@code search[:depth]} - alpha-beta search to a fixed depth, 6 plies by default.</li>
+ * </ul>
+ */
+public final class Policies {
+
+    private static final int DEFAULT_SEARCH_DEPTH = 6;
+
+    // fixed depth searches are not meant to be cut by time
+    private static final long SEARCH_BUDGET_MS = 3_600_000;
+
+    private Policies() {
+    }
+
+    /**
+     * @return factory creating the policy for a worker with the worker's own random generator
+     */
+    public static Function<SplittableRandom, Policy> parse(String spec) {
+        final String[] parts = spec.trim().split(":", 2);
+        return switch (parts[0]) {
+            case "random" -> RandomPolicy::new;
+            case "greedy" -> random -> new GreedyPolicy();
+            case "search" -> {
+                final int depth = parts.length == 2
+                        ? Integer.parseInt(parts[1])
+                        : DEFAULT_SEARCH_DEPTH;
+                yield random -> new SearchPolicy(depth);
+            }
+            default -> throw new IllegalArgumentException("Unknown policy: " + spec);
+        };
+    }
+
+    private static final class RandomPolicy implements Policy {
+
+        private final SplittableRandom random;
+
+        private RandomPolicy(SplittableRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public int chooseCupIndex(BoardState state) {
+            final int seat = state.getActiveSeat();
+            long mask = state.legalMovesMask(seat);
+            for (int skip = random.nextInt(Long.bitCount(mask)); skip > 0; skip--) {
+                mask &= mask - 1;
+            }
+            return state.cupIndex(seat, Long.numberOfTrailingZeros(mask) + 1);
+        }
+    }
+
+    private static final class GreedyPolicy implements Policy {
+
+        private BoardState child;
+
+        @Override
+        public int chooseCupIndex(BoardState state) {
+            if (child == null) {
+                child = state.copy();
+            }
+            final int seat = state.getActiveSeat();
+            final int mancalaIndex = state.mancalaIndex(seat);
+
+            int bestCupIndex = -1;
+            int bestGain = Integer.MIN_VALUE;
+            for (final int cupNumber : state.legalCupNumbers(seat)) {
+                final int cupIndex = state.cupIndex(seat, cupNumber);
+                child.copyFrom(state);
+                final int lastPitIndex = child.playMove(cupIndex);
+                // of two moves with the same gain the one with an extra turn is preferred
+                final int gain = 2 * (child.getStones(mancalaIndex) - state.getStones(mancalaIndex))
+                        + (lastPitIndex == mancalaIndex ? 1 : 0);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestCupIndex = cupIndex;
+                }
+            }
+            return bestCupIndex;
+        }
+    }
+
+    private static final class SearchPolicy implements Policy {
+
+        private final AlphaBetaSearch search;
+
+        private SearchPolicy(int depth) {
+            this.search = new AlphaBetaSearch(depth);
+        }
+
+        @Override
+        public int chooseCupIndex(BoardState state) {
+            final int cupNumber = search.search(state, SEARCH_BUDGET_MS).cupNumber();
+            return state.cupIndex(state.getActiveSeat(), cupNumber);
+        }
+    }
+}
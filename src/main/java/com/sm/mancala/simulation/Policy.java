@@ -0,0 +1,15 @@
+package com.sm.mancala.simulation;
+
+import com.sm.mancala.domain.engine.BoardState;
+
+/**
+ * Way of choosing moves in simulated games. Instances are used by one thread only.
+ */
+@FunctionalInterface
+public interface Policy {
+
+    /**
+     * @return board index of the cup to play for the active seat, the game is not over
+     */
+    int chooseCupIndex(BoardState state);
+}
@@ -0,0 +1,104 @@
+package com.sm.mancala.simulation;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Plays games between policies without the web layer and the database, splitting them over a
+ * fixed number of threads. Games are played with {@link BoardState}, which implements the same
+ * rules as the game service. Seats are rotated between the policies from game to game, so the
+ * advantage of moving first is shared equally.
+ */
+public final class SelfPlaySimulator {
+
+    private final SimulationOptions options;
+
+    private final List<Function<SplittableRandom, Policy>> policyFactories = new ArrayList<>();
+
+    public SelfPlaySimulator(SimulationOptions options) {
+        this.options = options;
+        options.policies().forEach(spec -> policyFactories.add(Policies.parse(spec)));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final SimulationOptions options = SimulationOptions.parse(args);
+
+        final long startNanos = System.nanoTime();
+        final SimulationStats stats = new SelfPlaySimulator(options).run();
+        final double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        System.out.printf("Played %d games of %d players, %d cups, %d stones on %d threads "
+                        + "in %.1f s: %.0f games/s%n",
+                stats.getGames(), options.playersNumber(), options.cupsNumber(),
+                options.stonesPerCup(), options.threads(), seconds, stats.getGames() / seconds);
+        for (int i = 0; i < options.policies().size(); i++) {
+            System.out.printf("  %-12s wins %6.2f%%%n",
+                    options.policies().get(i), 100.0 * stats.getWins(i) / stats.getGames());
+        }
+        System.out.printf("  %-12s      %6.2f%%%n",
+                "draws", 100.0 * stats.getDraws() / stats.getGames());
+        System.out.printf("Game length in moves: mean %.1f, median %d, p90 %d, p99 %d, max %d%n",
+                stats.getMeanLength(), stats.getLengthPercentile(0.5),
+                stats.getLengthPercentile(0.9), stats.getLengthPercentile(0.99),
+                stats.getLengthPercentile(1.0));
+    }
+
+    public SimulationStats run() throws InterruptedException {
+        final int threads = options.threads();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final SplittableRandom seeds = new SplittableRandom();
+        try {
+            final List<Future<SimulationStats>> results = new ArrayList<>();
+            for (int worker = 0; worker < threads; worker++) {
+                final long firstGame = options.games() * worker / threads;
+                final long lastGame = options.games() * (worker + 1) / threads;
+                final SplittableRandom random = seeds.split();
+                results.add(executor.submit(() -> play(firstGame, lastGame, random)));
+            }
+
+            final SimulationStats stats = new SimulationStats(policyFactories.size());
+            for (final Future<SimulationStats> result : results) {
+                stats.merge(result.get());
+            }
+            return stats;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SimulationStats play(long firstGame, long lastGame, SplittableRandom random) {
+        final int playersNumber = options.playersNumber();
+        final Policy[] policies = new Policy[playersNumber];
+        for (int i = 0; i < playersNumber; i++) {
+            policies[i] = policyFactories.get(i).apply(random.split());
+        }
+        final SimulationStats stats = new SimulationStats(playersNumber);
+        final BoardState initialState = BoardState.createInitialState(
+                playersNumber, options.cupsNumber(), options.stonesPerCup()
+        );
+        final BoardState state = initialState.copy();
+
+        for (long game = firstGame; game < lastGame; game++) {
+            final int rotation = (int) (game % playersNumber);
+            state.copyFrom(initialState);
+            int moves = 0;
+            while (!state.isGameOver()) {
+                final Policy policy = policies[(state.getActiveSeat() + rotation) % playersNumber];
+                state.playMove(policy.chooseCupIndex(state));
+                moves++;
+            }
+            final int winnerSeat = state.getWinnerSeat();
+            stats.record(winnerSeat < 0 ? -1 : (winnerSeat + rotation) % playersNumber, moves);
+        }
+        return stats;
+    }
+}
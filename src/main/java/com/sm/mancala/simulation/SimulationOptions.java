@@ -0,0 +1,59 @@
+package com.sm.mancala.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options of a simulation run, parsed from {@code --name=value} command line arguments.
+ *
+ * @param policies one policy name per player, see {@link Policies}
+ */
+public record SimulationOptions(
+        int playersNumber,
+        int cupsNumber,
+        int stonesPerCup,
+        long games,
+        int threads,
+        List<String> policies
+) {
+
+    public SimulationOptions {
+        if (playersNumber < 2 || cupsNumber < 1 || stonesPerCup < 1 || games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Players number must be at least 2, cups, stones, "
+                    + "games and threads must be positive");
+        }
+        if (policies.size() != playersNumber) {
+            throw new IllegalArgumentException(
+                    "One policy per player expected, got " + policies.size());
+        }
+    }
+
+    public static SimulationOptions parse(String[] args) {
+        int playersNumber = 2;
+        int cupsNumber = 6;
+        int stonesPerCup = 4;
+        long games = 100_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> policies = List.of("random", "greedy");
+
+        for (final String arg : args) {
+            final String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Option expected as --name=value: " + arg);
+            }
+            final String value = option[1];
+            switch (option[0].substring(2)) {
+                case "players" -> playersNumber = Integer.parseInt(value);
+                case "cups" -> cupsNumber = Integer.parseInt(value);
+                case "stones" -> stonesPerCup = Integer.parseInt(value);
+                case "games" -> games = Long.parseLong(value);
+                case "threads" -> threads = Integer.parseInt(value);
+                case "policies" -> policies = Arrays.asList(value.split(","));
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return new SimulationOptions(
+                playersNumber, cupsNumber, stonesPerCup, games, threads, policies
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package com.sm.mancala.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Outcomes of simulated games: wins per policy, draws and a histogram of game lengths in moves.
+ * Each worker fills its own instance, they are merged when the workers are done.
+ */
+public final class SimulationStats {
+
+    private final long[] wins;
+
+    private long draws;
+
+    private long games;
+
+    private long[] lengths = new long[128];
+
+    public SimulationStats(int policiesNumber) {
+        this.wins = new long[policiesNumber];
+    }
+
+    /**
+     * @param winner index of the winning policy, negative for a draw
+     */
+    public void record(int winner, int moves) {
+        games++;
+        if (winner < 0) {
+            draws++;
+        } else {
+            wins[winner]++;
+        }
+        if (moves >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(moves + 1, 2 * lengths.length));
+        }
+        lengths[moves]++;
+    }
+
+    public void merge(SimulationStats other) {
+        games += other.games;
+        draws += other.draws;
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+        }
+        if (other.lengths.length > lengths.length) {
+            lengths = Arrays.copyOf(lengths, other.lengths.length);
+        }
+        for (int i = 0; i < other.lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins(int policy) {
+        return wins[policy];
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public double getMeanLength() {
+        long moves = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            moves += i * lengths[i];
+        }
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /**
+     * @return smallest game length in moves not exceeded by the given fraction of the games
+     */
+    public int getLengthPercentile(double fraction) {
+        final long threshold = (long) Math.ceil(fraction * games);
+        long counted = 0;
+        for (int i = 0; i < lengths.length; i++) {
+            counted += lengths[i];
+            if (counted >= threshold && counted > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,329 @@
+package com.sm.mancala.wal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log file of opaque entries numbered by a log sequence number (LSN), an entry is
+ * acknowledged once it is on disk.
+ *
+ * <p>Appends are group committed: appending threads queue their entries and wait, while a single
+ * sync thread writes everything queued so far with one write and one {@code fsync}, then wakes
+ * them up. Entries arriving during an {@code fsync} go into the next group, so the number of
+ * {@code fsync}s does not grow with the number of concurrent appends.
+ *
+ * <p>Every entry is stored as its payload length, LSN, payload and a CRC32 of the LSN and the
+ * payload. On open the entries are read back up to the first incomplete or corrupted one, a torn
+ * write of a crash, and the file is cut there.
+ *
+ * <p>A group that fails to be written or synced is cut off the file again and the log stops
+ * accepting appends: an entry appended after torn bytes would be acknowledged, but lost on the
+ * next open.
+ */
+@Slf4j
+public final class WriteAheadLog implements Closeable {
+
+    private static final int ENTRY_OVERHEAD = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+
+    private final List<Entry> recoveredEntries;
+
+    private final Object queueLock = new Object();
+
+    private List<PendingEntry> queue = new ArrayList<>();
+
+    private long lastLsn;
+
+    private long syncedLsn;
+
+    // end of the last synced group, the file is cut back to it when a group fails
+    private long syncedOffset;
+
+    private IOException failure;
+
+    private long syncsNumber;
+
+    private boolean closed;
+
+    private Consumer<List<Entry>> syncListener;
+
+    private Thread syncThread;
+
+    /**
+     * Opens or creates the file and reads back the entries it holds.
+     */
+    public WriteAheadLog(Path file) throws IOException {
+        this(open(file));
+    }
+
+    WriteAheadLog(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.recoveredEntries = recover();
+        this.syncedOffset = channel.position();
+    }
+
+    /**
+     * Entries found in the file when it was opened, in LSN order.
+     */
+    public List<Entry> getRecoveredEntries() {
+        return recoveredEntries;
+    }
+
+    /**
+     * Starts accepting appends.
+     *
+     * @param minLsn LSNs of new entries are above it and above the LSNs of the recovered entries
+     * @param syncListener called on the sync thread with every group of entries once it is on
+     *                     disk, before the appending threads are woken up; the entries count as
+     *                     appended even when it throws
+     */
+    public void start(long minLsn, Consumer<List<Entry>> syncListener) {
+        synchronized (queueLock) {
+            final long recoveredLsn = recoveredEntries.isEmpty()
+                    ? 0
+                    : recoveredEntries.get(recoveredEntries.size() - 1).lsn();
+            this.lastLsn = Math.max(minLsn, recoveredLsn);
+            this.syncedLsn = lastLsn;
+            this.syncListener = syncListener;
+        }
+        syncThread = new Thread(this::syncLoop, "wal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /**
+     * Appends an entry and waits until it is on disk.
+     *
+     * @return LSN of the entry
+     * @throws UncheckedIOException when the entry could not be synced, or an earlier one could
+     *                              not and the log does not accept appends anymore
+     */
+    public long append(byte[] payload) {
+        final PendingEntry pending;
+        synchronized (queueLock) {
+            if (closed || syncThread == null) {
+                throw new IllegalStateException("Write-ahead log is not open for appends");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+            pending = new PendingEntry(new Entry(++lastLsn, payload), new CompletableFuture<>());
+            queue.add(pending);
+            queueLock.notifyAll();
+        }
+        try {
+            pending.synced().join();
+        } catch (CompletionException e) {
+            throw new UncheckedIOException("Write-ahead log append failed",
+                    e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+        }
+        return pending.entry().lsn();
+    }
+
+    /**
+     * Empties the file when every entry appended so far is applied and the file has grown to
+     * {@code minBytes}, so it is rewritten from the start rather than growing forever.
+     *
+     * @return whether the file was emptied
+     */
+    public boolean truncateIfApplied(long appliedLsn, long minBytes) throws IOException {
+        synchronized (queueLock) {
+            // the sync thread only writes groups taken from the queue, which is empty here and
+            // stays so while the lock is held, and every taken group is synced already
+            if (appliedLsn < lastLsn || syncedLsn < lastLsn || channel.size() < minBytes) {
+                return false;
+            }
+            channel.truncate(0);
+            channel.force(true);
+            syncedOffset = 0;
+            return true;
+        }
+    }
+
+    /**
+     * Number of {@code fsync}s made for appends.
+     */
+    public long getSyncsNumber() {
+        synchronized (queueLock) {
+            return syncsNumber;
+        }
+    }
+
+    /**
+     * Syncs the entries queued so far and stops accepting appends.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (queueLock) {
+            closed = true;
+            queueLock.notifyAll();
+        }
+        if (syncThread != null) {
+            try {
+                syncThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            final List<PendingEntry> group;
+            synchronized (queueLock) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        queueLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                group = queue;
+                queue = new ArrayList<>();
+            }
+            final List<Entry> entries = group.stream().map(PendingEntry::entry).toList();
+            final long offset;
+            try {
+                final ByteBuffer buffer = encode(entries);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+                offset = channel.position();
+            } catch (IOException | RuntimeException e) {
+                fail(group, e instanceof IOException io ? io : new IOException(e));
+                return;
+            }
+            final long lastGroupLsn = entries.get(entries.size() - 1).lsn();
+            synchronized (queueLock) {
+                syncedLsn = lastGroupLsn;
+                syncedOffset = offset;
+                syncsNumber++;
+            }
+            try {
+                syncListener.accept(entries);
+            } catch (RuntimeException e) {
+                log.error("[WriteAheadLog] Entries up to LSN {} synced, but not handed over: {}",
+                        lastGroupLsn, e.getMessage(), e);
+            } finally {
+                group.forEach(pending -> pending.synced().complete(null));
+            }
+        }
+    }
+
+    // the failed group is cut off, so it is not replayed for appends that were not acknowledged
+    private void fail(List<PendingEntry> group, IOException e) {
+        final List<PendingEntry> failed = new ArrayList<>(group);
+        final long offset;
+        synchronized (queueLock) {
+            failure = e;
+            failed.addAll(queue);
+            queue = new ArrayList<>();
+            offset = syncedOffset;
+        }
+        try {
+            channel.truncate(offset);
+            channel.position(offset);
+            channel.force(true);
+        } catch (IOException truncateFailure) {
+            e.addSuppressed(truncateFailure);
+        }
+        log.error("[WriteAheadLog] Sync failed, no more appends accepted: {}", e.getMessage(), e);
+        failed.forEach(pending -> pending.synced().completeExceptionally(e));
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        return FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+    }
+
+    private static ByteBuffer encode(List<Entry> entries) {
+        int size = 0;
+        for (final Entry entry : entries) {
+            size += ENTRY_OVERHEAD + entry.payload().length;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        final CRC32 crc = new CRC32();
+        for (final Entry entry : entries) {
+            final int start = buffer.position();
+            buffer.putInt(entry.payload().length);
+            buffer.putLong(entry.lsn());
+            buffer.put(entry.payload());
+            crc.reset();
+            crc.update(buffer.array(), start + Integer.BYTES, Long.BYTES + entry.payload().length);
+            buffer.putInt((int) crc.getValue());
+        }
+        return buffer.flip();
+    }
+
+    private List<Entry> recover() throws IOException {
+        final long size = channel.size();
+        final ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size));
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // reads until the buffer is full
+        }
+        buffer.flip();
+
+        final List<Entry> entries = new ArrayList<>();
+        final CRC32 crc = new CRC32();
+        long lastRecoveredLsn = 0;
+        while (buffer.remaining() >= ENTRY_OVERHEAD) {
+            final int start = buffer.position();
+            final int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < Long.BYTES + length + Integer.BYTES) {
+                buffer.position(start);
+                break;
+            }
+            final long lsn = buffer.getLong();
+            final byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(buffer.array(), start + Integer.BYTES, Long.BYTES + length);
+            if (buffer.getInt() != (int) crc.getValue() || lsn <= lastRecoveredLsn) {
+                buffer.position(start);
+                break;
+            }
+            entries.add(new Entry(lsn, payload));
+            lastRecoveredLsn = lsn;
+        }
+
+        if (buffer.position() < size) {
+            channel.truncate(buffer.position());
+            channel.force(true);
+        }
+        channel.position(buffer.position());
+        return List.copyOf(entries);
+    }
+
+    public record Entry(long lsn, byte[] payload) {
+    }
+
+    private record PendingEntry(Entry entry, CompletableFuture<Void> synced) {
+    }
+}
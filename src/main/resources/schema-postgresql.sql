@@ -0,0 +1,18 @@
+-- runs after schema.sql: identifiers of a database created before the sequences were introduced
+-- came from serial columns, so the sequences start above the identifiers taken. A sequence only
+-- ever moves forward, Hibernate allocates the block after the value it reads.
+SELECT setval('players_group_seq', GREATEST(
+        (SELECT last_value FROM players_group_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM players_group)));
+SELECT setval('player_seq', GREATEST(
+        (SELECT last_value FROM player_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM player)));
+SELECT setval('board_seq', GREATEST(
+        (SELECT last_value FROM board_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM board)));
+SELECT setval('game_seq', GREATEST(
+        (SELECT last_value FROM game_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM game)));
+SELECT setval('pit_seq', GREATEST(
+        (SELECT last_value FROM pit_seq),
+        (SELECT COALESCE(MAX(id), 0) FROM pit)));
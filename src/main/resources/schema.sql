@@ -1,42 +1,50 @@
-DROP TABLE IF EXISTS pit;
-DROP TABLE IF EXISTS game;
-DROP TABLE IF EXISTS board;
-DROP TABLE IF EXISTS player;
-DROP TABLE IF EXISTS players_group;
+-- created only where missing, so games and the write-ahead log checkpoint survive restarts;
+-- columns added since the first release are added to tables created before them
 
-CREATE TABLE players_group
+-- identifiers are allocated by Hibernate in blocks of 50, so inserts can be batched
+CREATE SEQUENCE IF NOT EXISTS players_group_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS player_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS board_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS game_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS pit_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS players_group
 (
-    id                  BIGSERIAL PRIMARY KEY,
+    id                  BIGINT PRIMARY KEY,
     active_player_index INTEGER NOT NULL
 );
 
-CREATE TABLE player
+CREATE TABLE IF NOT EXISTS player
 (
-    id               BIGSERIAL PRIMARY KEY,
-    players_group_id BIGINT NOT NULL,
+    id               BIGINT PRIMARY KEY,
+    players_group_id BIGINT  NOT NULL,
+    bot              BOOLEAN NOT NULL,
     FOREIGN KEY (players_group_id) REFERENCES players_group (id)
 );
 
-CREATE TABLE board
+CREATE TABLE IF NOT EXISTS board
 (
-    id             BIGSERIAL PRIMARY KEY,
-    last_cup_index INTEGER NOT NULL
+    id             BIGINT PRIMARY KEY,
+    last_cup_index INTEGER     NOT NULL,
+    storage        VARCHAR(20) NOT NULL,
+    stones         BYTEA
 );
 
-CREATE TABLE game
+CREATE TABLE IF NOT EXISTS game
 (
-    id               BIGSERIAL PRIMARY KEY,
+    id               BIGINT PRIMARY KEY,
     board_id         BIGINT  NOT NULL,
     players_group_id BIGINT  NOT NULL,
     status           VARCHAR(20) NOT NULL,
+    version          BIGINT  NOT NULL,
     FOREIGN KEY (board_id) REFERENCES board (id),
     FOREIGN KEY (players_group_id) REFERENCES players_group (id)
 );
 
-CREATE TABLE pit
+CREATE TABLE IF NOT EXISTS pit
 (
 
-    id                      BIGSERIAL PRIMARY KEY,
+    id                      BIGINT PRIMARY KEY,
     board_index             INTEGER     NOT NULL,
     board_number_for_player INTEGER     NOT NULL,
     stone_count             INTEGER     NOT NULL,
@@ -46,3 +54,48 @@ CREATE TABLE pit
     FOREIGN KEY (board_id) REFERENCES board (id),
     FOREIGN KEY (player_id) REFERENCES player (id)
 );
+
+ALTER TABLE player ADD COLUMN IF NOT EXISTS bot BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE board ADD COLUMN IF NOT EXISTS storage VARCHAR(20) NOT NULL DEFAULT 'PIT_ROWS';
+ALTER TABLE board ADD COLUMN IF NOT EXISTS stones BYTEA;
+ALTER TABLE game ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- a move updates its pits by board and index, a board's pits are loaded by board
+CREATE UNIQUE INDEX IF NOT EXISTS pit_board_index ON pit (board_id, board_index);
+
+-- moves of games stored as a move log, numbered from 1 within a game
+CREATE TABLE IF NOT EXISTS game_move
+(
+    game_id    BIGINT  NOT NULL,
+    seq        INTEGER NOT NULL,
+    player_id  BIGINT  NOT NULL,
+    cup_number INTEGER NOT NULL,
+    PRIMARY KEY (game_id, seq),
+    FOREIGN KEY (game_id) REFERENCES game (id)
+);
+
+-- position after the first seq moves, in the encoding of BoardStateCodec
+CREATE TABLE IF NOT EXISTS game_snapshot
+(
+    game_id BIGINT  NOT NULL,
+    seq     INTEGER NOT NULL,
+    state   BYTEA   NOT NULL,
+    PRIMARY KEY (game_id, seq),
+    FOREIGN KEY (game_id) REFERENCES game (id)
+);
+
+-- log sequence number of the last write-ahead log entry applied to this database
+CREATE TABLE IF NOT EXISTS wal_checkpoint
+(
+    id  INTEGER PRIMARY KEY,
+    lsn BIGINT NOT NULL
+);
+
+-- write-ahead log entries that could not be applied, in the encoding of MoveWrite
+CREATE TABLE IF NOT EXISTS wal_dead_letter
+(
+    lsn     BIGINT PRIMARY KEY,
+    game_id BIGINT        NOT NULL,
+    payload BYTEA         NOT NULL,
+    error   VARCHAR(1000) NOT NULL
+);
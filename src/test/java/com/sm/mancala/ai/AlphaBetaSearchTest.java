@@ -0,0 +1,108 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import org.junit.jupiter.api.Test;
+
+public class AlphaBetaSearchTest {
+
+    private static final long UNLIMITED_BUDGET_MS = 60_000;
+
+    @Test
+    public void search_sameScoreAsPlainMinimax() {
+        final int depth = 5;
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        final int[] openingCupNumbers = {3, 4, 1, 6, 2};
+
+        for (final int cupNumber : openingCupNumbers) {
+            if (state.isGameOver()) {
+                break;
+            }
+            final SearchResult result = new AlphaBetaSearch(depth)
+                    .search(state, UNLIMITED_BUDGET_MS);
+
+            assertThat(result.score())
+                    .isEqualTo(minimax(state, depth, state.getActiveSeat()));
+            assertThat(state.isMoveAllowed(
+                    state.getActiveSeat(),
+                    state.cupIndex(state.getActiveSeat(), result.cupNumber())
+            )).isTrue();
+
+            final int seat = state.getActiveSeat();
+            final int cupIndex = state.cupIndex(seat, cupNumber);
+            state.playMove(state.isMoveAllowed(seat, cupIndex)
+                    ? cupIndex
+                    : state.cupIndex(seat, state.legalCupNumbers(seat)[0]));
+        }
+    }
+
+    @Test
+    public void search_capturesWinningStones() {
+        final BoardState state = new BoardState(2, 6);
+        // seat 0: cup 1 can land in the empty cup 2 and capture 10 stones from the opposite cup
+        state.setStones(state.cupIndex(0, 1), 1);
+        state.setStones(state.cupIndex(0, 3), 5);
+        state.setStones(state.cupIndex(1, 5), 10);
+        state.setStones(state.cupIndex(1, 1), 1);
+
+        final SearchResult result = new AlphaBetaSearch(30).search(state, UNLIMITED_BUDGET_MS);
+
+        assertThat(result.cupNumber()).isEqualTo(1);
+        assertThat(result.score()).isGreaterThan(Evaluation.TERMINAL_SCORE);
+    }
+
+    @Test
+    public void search_singleLegalMove_noSearch() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        for (int cupNumber = 1; cupNumber < 6; cupNumber++) {
+            state.setStones(state.cupIndex(0, cupNumber), 0);
+        }
+
+        final SearchResult result = new AlphaBetaSearch(8).search(state, UNLIMITED_BUDGET_MS);
+
+        assertThat(result.cupNumber()).isEqualTo(6);
+        assertThat(result.depth()).isEqualTo(0);
+    }
+
+    @Test
+    public void search_stopsWithinTimeBudget() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+        final long timeBudgetMs = 50;
+
+        final long startNanos = System.nanoTime();
+        final SearchResult result = new AlphaBetaSearch(64).search(state, timeBudgetMs);
+        final long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(timeBudgetMs + 500);
+        assertThat(result.depth()).isGreaterThan(0);
+        assertThat(state.isMoveAllowed(0, state.cupIndex(0, result.cupNumber()))).isTrue();
+    }
+
+    @Test
+    public void search_gameOver_rejected() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        state.collectRemainingStones();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new AlphaBetaSearch(4).search(state, UNLIMITED_BUDGET_MS)
+        );
+    }
+
+    private int minimax(BoardState state, int depth, int rootSeat) {
+        if (state.isGameOver() || depth == 0) {
+            return Evaluation.evaluate(state, rootSeat);
+        }
+        final boolean maximizing = state.getActiveSeat() == rootSeat;
+        int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        for (final int cupNumber : state.legalCupNumbers(state.getActiveSeat())) {
+            final BoardState child = state.copy();
+            child.playMove(child.cupIndex(child.getActiveSeat(), cupNumber));
+            final int score = minimax(child, depth - 1, rootSeat);
+            best = maximizing ? Math.max(best, score) : Math.min(best, score);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,137 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EndgameTablebaseTest {
+
+    private static final int MAX_STONES = 6;
+
+    @TempDir
+    static Path directory;
+
+    private static EndgameTablebase tablebase;
+
+    @BeforeAll
+    public static void generateTablebase() throws IOException {
+        final Path file = directory.resolve("endgame.tb");
+        EndgameTablebaseGenerator.generate(MAX_STONES, file);
+        tablebase = EndgameTablebase.open(file);
+    }
+
+    @Test
+    public void rank_unrankRoundTrip() {
+        final int stones = 4;
+        final long positions = EndgameTablebase.positions(stones)
+                - EndgameTablebase.positions(stones - 1);
+        final int[] cups = new int[EndgameTablebase.CUPS];
+
+        for (long rank = 0; rank < positions; rank++) {
+            EndgameTablebase.unrank(stones, rank, cups);
+
+            assertThat(EndgameTablebase.rank(cups)).isEqualTo(rank);
+        }
+    }
+
+    @Test
+    public void open_fileSizeMatchesPositions() throws IOException {
+        final Path file = directory.resolve("endgame.tb");
+
+        assertThat(Files.size(file)).isEqualTo(
+                EndgameTablebase.HEADER_BYTES + EndgameTablebase.positions(MAX_STONES));
+        assertThat(tablebase.getMaxStones()).isEqualTo(MAX_STONES);
+    }
+
+    @Test
+    public void value_sameAsExhaustiveSearch() {
+        final SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 2_000; i++) {
+            final BoardState state = randomPosition(random, 1 + random.nextInt(MAX_STONES));
+            if (state.isGameOver()) {
+                continue;
+            }
+
+            assertThat(tablebase.covers(state)).isTrue();
+            assertThat(tablebase.value(state)).as(state.toString()).isEqualTo(solve(state));
+        }
+    }
+
+    @Test
+    public void solve_bestMoveReachesBestOutcome() {
+        final SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 500; i++) {
+            final BoardState state = randomPosition(random, MAX_STONES);
+            if (state.isGameOver()) {
+                continue;
+            }
+            final int seat = state.getActiveSeat();
+            final int expectedDifference = Evaluation.mancalaDifference(state, seat) + solve(state);
+
+            final SearchResult result = tablebase.solve(state);
+            final BoardState child = state.copy();
+            child.playMove(child.cupIndex(seat, result.cupNumber()));
+            final int childOutcome = child.isGameOver() ? 0
+                    : child.getActiveSeat() == seat ? solve(child) : -solve(child);
+
+            assertThat(result.score()).isEqualTo(Evaluation.finalScore(expectedDifference));
+            assertThat(Evaluation.mancalaDifference(child, seat) + childOutcome)
+                    .isEqualTo(expectedDifference);
+        }
+    }
+
+    @Test
+    public void covers_moreStonesThanTable_false() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+
+        assertThat(tablebase.covers(state)).isFalse();
+    }
+
+    @Test
+    public void constructor_notTablebase_rejected() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        assertThrows(IllegalArgumentException.class, () -> new EndgameTablebase(buffer));
+    }
+
+    private static BoardState randomPosition(SplittableRandom random, int stones) {
+        final BoardState state = new BoardState(2, 6);
+        for (int i = 0; i < stones; i++) {
+            final int seat = random.nextInt(2);
+            final int cupIndex = state.cupIndex(seat, 1 + random.nextInt(6));
+            state.setStones(cupIndex, state.getStones(cupIndex) + 1);
+        }
+        state.setStones(state.mancalaIndex(0), random.nextInt(20));
+        state.setStones(state.mancalaIndex(1), random.nextInt(20));
+        state.setActiveSeat(random.nextInt(2));
+        return state;
+    }
+
+    // stones the side to move still gains over the opponent, by plain negamax to the end
+    private static int solve(BoardState state) {
+        final int seat = state.getActiveSeat();
+        final int difference = Evaluation.mancalaDifference(state, seat);
+        int best = Integer.MIN_VALUE;
+        for (final int cupNumber : state.legalCupNumbers(seat)) {
+            final BoardState child = state.copy();
+            child.playMove(child.cupIndex(seat, cupNumber));
+            int outcome = Evaluation.mancalaDifference(child, seat) - difference;
+            if (!child.isGameOver()) {
+                outcome += child.getActiveSeat() == seat ? solve(child) : -solve(child);
+            }
+            best = Math.max(best, outcome);
+        }
+        return best;
+    }
+}
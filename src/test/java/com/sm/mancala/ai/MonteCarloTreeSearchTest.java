@@ -0,0 +1,96 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+public class MonteCarloTreeSearchTest {
+
+    private static final long UNLIMITED_BUDGET_MS = 60_000;
+
+    @Test
+    public void search_capturesWinningStones() {
+        final BoardState state = new BoardState(2, 6);
+        state.setStones(state.cupIndex(0, 1), 1);
+        state.setStones(state.cupIndex(0, 3), 5);
+        state.setStones(state.cupIndex(1, 5), 10);
+        state.setStones(state.cupIndex(1, 1), 1);
+
+        final SearchResult result = new MonteCarloTreeSearch()
+                .search(state, UNLIMITED_BUDGET_MS, 20_000);
+
+        assertThat(result.cupNumber()).isEqualTo(1);
+        assertThat(result.score()).isGreaterThan(900);
+    }
+
+    @Test
+    public void search_parallelWorkers_playoutBudgetRespected() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        final long playouts = 10 * MonteCarloTreeSearch.MERGE_INTERVAL + 5;
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final SearchResult result = new MonteCarloTreeSearch(pool)
+                    .search(state, UNLIMITED_BUDGET_MS, playouts);
+
+            assertThat(result.nodes()).isEqualTo(playouts);
+            assertThat(result.depth()).isGreaterThan(0);
+            assertThat(state.isMoveAllowed(0, state.cupIndex(0, result.cupNumber()))).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void search_stopsWithinTimeBudget() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+        final long timeBudgetMs = 50;
+
+        final long startNanos = System.nanoTime();
+        final SearchResult result = new MonteCarloTreeSearch().search(state, timeBudgetMs, 0);
+        final long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(timeBudgetMs + 500);
+        assertThat(result.nodes()).isPositive();
+    }
+
+    @Test
+    public void search_singleLegalMove_noPlayouts() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        for (int cupNumber = 1; cupNumber < 6; cupNumber++) {
+            state.setStones(state.cupIndex(0, cupNumber), 0);
+        }
+
+        final SearchResult result = new MonteCarloTreeSearch()
+                .search(state, UNLIMITED_BUDGET_MS, 1_000);
+
+        assertThat(result.cupNumber()).isEqualTo(6);
+        assertThat(result.nodes()).isZero();
+    }
+
+    @Test
+    public void search_gameOver_rejected() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        state.collectRemainingStones();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new MonteCarloTreeSearch().search(state, UNLIMITED_BUDGET_MS, 1_000)
+        );
+    }
+
+    @Test
+    public void reward_winDrawLoss() {
+        final BoardState state = new BoardState(2, 6);
+        state.setStones(state.mancalaIndex(0), 25);
+        state.setStones(state.mancalaIndex(1), 23);
+
+        assertThat(MonteCarloTreeSearch.reward(state, 0)).isEqualTo(2);
+        assertThat(MonteCarloTreeSearch.reward(state, 1)).isZero();
+
+        state.setStones(state.mancalaIndex(1), 25);
+        assertThat(MonteCarloTreeSearch.reward(state, 1)).isEqualTo(1);
+    }
+}
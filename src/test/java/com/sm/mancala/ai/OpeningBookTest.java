@@ -0,0 +1,91 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class OpeningBookTest {
+
+    private static final int PLIES = 3;
+
+    private static final int DEPTH = 4;
+
+    @TempDir
+    static Path directory;
+
+    private static Map<Long, SearchResult> entries;
+
+    private static OpeningBook book;
+
+    @BeforeAll
+    public static void buildBook() throws IOException {
+        entries = OpeningBookBuilder.build(
+                BoardState.createInitialState(2, 6, 4), PLIES, DEPTH, null
+        );
+        entries.putAll(OpeningBookBuilder.build(
+                BoardState.createInitialState(2, 6, 6), PLIES, DEPTH, null
+        ));
+        final Path file = directory.resolve("opening.book");
+        OpeningBookBuilder.write(entries, file);
+        book = OpeningBook.load(file);
+    }
+
+    @Test
+    public void load_fileSizeMatchesCapacity() throws IOException {
+        final Path file = directory.resolve("opening.book");
+
+        assertThat(book.capacity()).isGreaterThanOrEqualTo(2 * entries.size());
+        assertThat(Files.size(file)).isEqualTo(
+                OpeningBook.HEADER_BYTES + (long) book.capacity() * OpeningBook.ENTRY_BYTES);
+    }
+
+    @Test
+    public void find_everyBookPosition_sameMoveAsSearch() {
+        final List<BoardState> positions = OpeningBookBuilder.positions(
+                BoardState.createInitialState(2, 6, 4), PLIES
+        );
+
+        assertThat(positions).hasSizeGreaterThan(1);
+        for (final BoardState position : positions) {
+            final SearchResult expected = new AlphaBetaSearch(DEPTH).search(position, 10_000);
+
+            final SearchResult result = book.find(position).orElseThrow();
+
+            assertThat(result.cupNumber()).as(position.toString()).isEqualTo(expected.cupNumber());
+            assertThat(result.score()).isEqualTo(expected.score());
+            assertThat(result.depth()).isEqualTo(expected.depth());
+        }
+    }
+
+    @Test
+    public void find_otherConfiguration_separateEntry() {
+        final BoardState sixStones = BoardState.createInitialState(2, 6, 6);
+
+        assertThat(book.find(sixStones)).isPresent();
+        assertThat(book.find(sixStones).get().cupNumber())
+                .isEqualTo(entries.get(sixStones.getPositionHash()).cupNumber());
+    }
+
+    @Test
+    public void find_positionOutOfBook_empty() {
+        assertThat(book.find(BoardState.createInitialState(2, 4, 4))).isEmpty();
+        assertThat(book.find(BoardState.createInitialState(3, 6, 4))).isEmpty();
+    }
+
+    @Test
+    public void constructor_notOpeningBook_rejected() {
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        assertThrows(IllegalArgumentException.class, () -> new OpeningBook(buffer));
+    }
+}
@@ -0,0 +1,99 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class ParallelAlphaBetaSearchTest {
+
+    private static final long UNLIMITED_BUDGET_MS = 60_000;
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void shutdownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void search_sameScoreAsSerialSearch() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        final int[] openingCupNumbers = {3, 4, 1, 6, 2, 5};
+
+        for (final int cupNumber : openingCupNumbers) {
+            if (state.isGameOver()) {
+                break;
+            }
+            for (int depth = 1; depth <= ParallelAlphaBetaSearch.SPLIT_DEPTH + 4; depth++) {
+                final SearchResult serial = new AlphaBetaSearch(depth)
+                        .search(state, UNLIMITED_BUDGET_MS);
+                final SearchResult parallel = new ParallelAlphaBetaSearch(pool, depth)
+                        .search(state, UNLIMITED_BUDGET_MS);
+
+                assertThat(parallel.score()).isEqualTo(serial.score());
+                assertThat(parallel.depth()).isEqualTo(serial.depth());
+                assertThat(state.isMoveAllowed(
+                        state.getActiveSeat(),
+                        state.cupIndex(state.getActiveSeat(), parallel.cupNumber())
+                )).isTrue();
+            }
+
+            final int seat = state.getActiveSeat();
+            final int cupIndex = state.cupIndex(seat, cupNumber);
+            state.playMove(state.isMoveAllowed(seat, cupIndex)
+                    ? cupIndex
+                    : state.cupIndex(seat, state.legalCupNumbers(seat)[0]));
+        }
+    }
+
+    @Test
+    public void search_capturesWinningStones() {
+        final BoardState state = new BoardState(2, 6);
+        state.setStones(state.cupIndex(0, 1), 1);
+        state.setStones(state.cupIndex(0, 3), 5);
+        state.setStones(state.cupIndex(1, 5), 10);
+        state.setStones(state.cupIndex(1, 1), 1);
+
+        final SearchResult result = new ParallelAlphaBetaSearch(pool, 30)
+                .search(state, UNLIMITED_BUDGET_MS);
+
+        assertThat(result.cupNumber()).isEqualTo(1);
+        assertThat(result.score()).isGreaterThan(Evaluation.TERMINAL_SCORE);
+    }
+
+    @Test
+    public void search_stopsWithinTimeBudget() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+        final long timeBudgetMs = 50;
+
+        final long startNanos = System.nanoTime();
+        final SearchResult result = new ParallelAlphaBetaSearch(pool, 64)
+                .search(state, timeBudgetMs);
+        final long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+
+        assertThat(elapsedMs).isLessThan(timeBudgetMs + 500);
+        assertThat(result.depth()).isGreaterThan(0);
+        assertThat(state.isMoveAllowed(0, state.cupIndex(0, result.cupNumber()))).isTrue();
+    }
+
+    @Test
+    public void search_gameOver_rejected() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        state.collectRemainingStones();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new ParallelAlphaBetaSearch(pool, 4).search(state, UNLIMITED_BUDGET_MS)
+        );
+    }
+}
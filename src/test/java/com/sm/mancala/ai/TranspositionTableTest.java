@@ -0,0 +1,128 @@
+package com.sm.mancala.ai;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sm.mancala.domain.engine.BoardState;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTest {
+
+    private static final long UNLIMITED_BUDGET_MS = 60_000;
+
+    @Test
+    public void constructor_capacityIsPowerOfTwoWithinBudget() {
+        final TranspositionTable table = new TranspositionTable(1000 * 16);
+
+        assertThat(table.capacity()).isEqualTo(512);
+    }
+
+    @Test
+    public void store_probeReturnsStoredFields() {
+        final TranspositionTable table = new TranspositionTable(1024 * 16);
+        final long key = 0x1234_5678_9ABC_DEF0L;
+
+        table.store(key, 7, TranspositionTable.LOWER_BOUND, -10_042, 11);
+        final long entry = table.probe(key);
+
+        assertThat(entry).isNotEqualTo(TranspositionTable.NO_ENTRY);
+        assertThat(TranspositionTable.depth(entry)).isEqualTo(7);
+        assertThat(TranspositionTable.bound(entry)).isEqualTo(TranspositionTable.LOWER_BOUND);
+        assertThat(TranspositionTable.score(entry)).isEqualTo(-10_042);
+        assertThat(TranspositionTable.bestCupIndex(entry)).isEqualTo(11);
+    }
+
+    @Test
+    public void probe_otherKeyInSameSlot_miss() {
+        final TranspositionTable table = new TranspositionTable(1024 * 16);
+        final long key = 42;
+
+        table.store(key, 3, TranspositionTable.EXACT, 5, MoveOrdering.NO_MOVE);
+
+        assertThat(table.probe(key + table.capacity())).isEqualTo(TranspositionTable.NO_ENTRY);
+        assertThat(TranspositionTable.bestCupIndex(table.probe(key)))
+                .isEqualTo(MoveOrdering.NO_MOVE);
+    }
+
+    @Test
+    public void store_shallowerResult_deeperEntryKept() {
+        final TranspositionTable table = new TranspositionTable(1024 * 16);
+        final long key = 42;
+        final long otherKey = key + table.capacity();
+
+        table.store(key, 6, TranspositionTable.EXACT, 5, 3);
+        table.store(otherKey, 2, TranspositionTable.EXACT, 9, 4);
+
+        assertThat(table.probe(otherKey)).isEqualTo(TranspositionTable.NO_ENTRY);
+        assertThat(TranspositionTable.depth(table.probe(key))).isEqualTo(6);
+    }
+
+    @Test
+    public void store_newSearch_oldEntryReplaced() {
+        final TranspositionTable table = new TranspositionTable(1024 * 16);
+        final long key = 42;
+        final long otherKey = key + table.capacity();
+
+        table.store(key, 6, TranspositionTable.EXACT, 5, 3);
+        table.newSearch();
+        table.store(otherKey, 2, TranspositionTable.EXACT, 9, 4);
+
+        assertThat(table.probe(key)).isEqualTo(TranspositionTable.NO_ENTRY);
+        assertThat(TranspositionTable.score(table.probe(otherKey))).isEqualTo(9);
+    }
+
+    @Test
+    public void store_concurrentWriters_probeNeverReturnsForeignData() throws Exception {
+        final TranspositionTable table = new TranspositionTable(64 * 16);
+        final int threads = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final long seed = t;
+                tasks.add(() -> {
+                    final SplittableRandom random = new SplittableRandom(seed);
+                    int mismatches = 0;
+                    for (int i = 0; i < 200_000; i++) {
+                        final long key = random.nextLong(1_000);
+                        // every field is derived from the key, so a torn entry would be visible
+                        table.store(key, (int) (key % 64), TranspositionTable.EXACT,
+                                (int) key * 3, (int) (key % 4000));
+                        final long probedKey = random.nextLong(1_000);
+                        final long entry = table.probe(probedKey);
+                        if (entry != TranspositionTable.NO_ENTRY
+                                && TranspositionTable.score(entry) != (int) probedKey * 3) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                });
+            }
+            for (final Future<Integer> future : executor.invokeAll(tasks)) {
+                assertThat(future.get()).isZero();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void search_withTable_sameMoveFewerNodes() {
+        final BoardState state = BoardState.createInitialState(2, 6, 4);
+        final int depth = 9;
+
+        final SearchResult plain = new AlphaBetaSearch(depth).search(state, UNLIMITED_BUDGET_MS);
+        final SearchResult cached = new AlphaBetaSearch(depth, new TranspositionTable(1 << 20))
+                .search(state, UNLIMITED_BUDGET_MS);
+
+        assertThat(cached.depth()).isEqualTo(depth);
+        assertThat(cached.nodes()).isLessThan(plain.nodes());
+        assertThat(state.isMoveAllowed(0, state.cupIndex(0, cached.cupNumber()))).isTrue();
+    }
+}
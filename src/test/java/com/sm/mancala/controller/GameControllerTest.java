@@ -2,7 +2,9 @@ package com.sm.mancala.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -17,12 +19,18 @@ import com.sm.mancala.domain.game.Board;
 import com.sm.mancala.domain.game.Game;
 import com.sm.mancala.domain.game.GameMoveResult;
 import com.sm.mancala.domain.game.GameMoveResultData;
+import com.sm.mancala.domain.game.Hint;
+import com.sm.mancala.domain.game.LegalMoves;
 import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.exception.ConflictException;
 import com.sm.mancala.service.GameService;
 import com.sm.mancala.web.model.CreateGameRequest;
+import com.sm.mancala.web.model.CreateGamesRequest;
+import com.sm.mancala.web.model.CreatedGamesDto;
 import com.sm.mancala.web.model.ErrorResponse;
 import com.sm.mancala.web.model.GameMove;
 import java.io.IOException;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -49,7 +57,7 @@ public class GameControllerTest {
                 .stonesPerCup(6)
                 .playersNumber(2);
         final Game game = prepareGame();
-        when(gameService.createGame(any(), any())).thenReturn(game);
+        when(gameService.createGame(any(), any(), anyBoolean())).thenReturn(game);
 
         this.mockMvc.perform(post(basePath)
                         .content(mapToJson(createGameRequest))
@@ -91,11 +99,47 @@ public class GameControllerTest {
         assertThat(errorResponse.getMessage()).contains("stonesPerCup must not be null");
     }
 
+    @Test
+    public void createGames_successful() throws Exception {
+        final CreateGamesRequest createGamesRequest = new CreateGamesRequest()
+                .stonesPerCup(6)
+                .playersNumber(2)
+                .gamesNumber(2);
+        final Game first = mock(Game.class);
+        final Game second = mock(Game.class);
+        when(first.getId()).thenReturn(1L);
+        when(second.getId()).thenReturn(2L);
+        when(gameService.createGames(any(), any(), anyBoolean(), eq(2)))
+                .thenReturn(List.of(first, second));
+
+        this.mockMvc.perform(post(basePath + "/batch")
+                        .content(mapToJson(createGamesRequest))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(content().json(mapToJson(new CreatedGamesDto()
+                        .gameIds(List.of(1L, 2L)))));
+    }
+
+    @Test
+    public void createGames_tooManyGames_maxConstrainViolation() throws Exception {
+        final CreateGamesRequest createGamesRequest = new CreateGamesRequest()
+                .stonesPerCup(6)
+                .playersNumber(2)
+                .gamesNumber(1001);
+
+        final ErrorResponse errorResponse =
+                performBadRequest(basePath + "/batch", createGamesRequest);
+        assertThat(errorResponse.getMessage())
+                .contains("gamesNumber must be less than or equal to");
+    }
+
     @Test
     public void getGameById_successful() throws Exception {
         final Long gameId = 1L;
         final Game game = prepareGame();
-        when(gameService.getGameById(eq(gameId))).thenReturn(game);
+        when(gameService.getGameDtoById(eq(gameId))).thenReturn(game.toDto());
 
         this.mockMvc.perform(get(basePath + "/" + gameId))
                 .andDo(print())
@@ -103,6 +147,30 @@ public class GameControllerTest {
                 .andExpect(content().json(mapToJson(game.toDto())));
     }
 
+    @Test
+    public void getLegalMoves_successful() throws Exception {
+        final Long gameId = 1L;
+        final LegalMoves legalMoves = new LegalMoves(gameId, 1L, new int[]{1, 3, 6});
+        when(gameService.getLegalMoves(eq(gameId))).thenReturn(legalMoves);
+
+        this.mockMvc.perform(get(basePath + "/" + gameId + "/legal-moves"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapToJson(legalMoves.toDto())));
+    }
+
+    @Test
+    public void getHint_successful() throws Exception {
+        final Long gameId = 1L;
+        final Hint hint = new Hint(gameId, 1L, 3, 120, 9);
+        when(gameService.getHint(eq(gameId))).thenReturn(hint);
+
+        this.mockMvc.perform(get(basePath + "/" + gameId + "/hint"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapToJson(hint.toDto())));
+    }
+
     @Test
     public void makeGameMove_successful() throws Exception {
         final GameMove gameMove = new GameMove()
@@ -124,6 +192,23 @@ public class GameControllerTest {
                 .andExpect(content().json(mapToJson(result.toDto())));
     }
 
+    @Test
+    public void makeGameMove_concurrentMoves_conflict() throws Exception {
+        final GameMove gameMove = new GameMove()
+                .gameId(1L)
+                .playerId(1L)
+                .cupNumber(1);
+        when(gameService.processMove(any()))
+                .thenThrow(new ConflictException("Game with id = 1 is changed by concurrent moves"));
+
+        this.mockMvc.perform(post(basePath + "/move")
+                        .content(mapToJson(gameMove))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void makeGameMove_invalidCupNumber_minConstrainViolation() throws Exception {
         final GameMove gameMove = new GameMove()
@@ -0,0 +1,64 @@
+package com.sm.mancala.domain.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardShapeTest {
+
+    @Test
+    public void of_sameShape_sharedInstance() {
+        assertThat(BoardShape.of(2, 6)).isSameAs(BoardShape.of(2, 6));
+        assertThat(BoardShape.of(3, 6)).isNotSameAs(BoardShape.of(2, 6));
+    }
+
+    @Test
+    public void oppositeCup_twoPlayers_cupAcrossBoard() {
+        final BoardShape shape = BoardShape.of(2, 6);
+        final int lastCupIndex = shape.getPitsNumber() - 2;
+
+        for (int pit = 0; pit < shape.getPitsNumber(); pit++) {
+            if (shape.isMancala(pit)) {
+                assertThat(shape.oppositeCup(pit)).isEqualTo(-1);
+            } else {
+                assertThat(shape.oppositeCup(pit)).isEqualTo(lastCupIndex - pit);
+            }
+        }
+    }
+
+    @Test
+    public void oppositeCup_threePlayers_mirroredCupOfNextSeat() {
+        final BoardShape shape = BoardShape.of(3, 4);
+
+        // seat 0 cups 0-3 face seat 1 cups 8-5, seat 2 cups 10-13 face seat 0 cups 3-0
+        assertThat(shape.oppositeCup(0)).isEqualTo(8);
+        assertThat(shape.oppositeCup(3)).isEqualTo(5);
+        assertThat(shape.oppositeCup(5)).isEqualTo(13);
+        assertThat(shape.oppositeCup(10)).isEqualTo(3);
+        assertThat(shape.oppositeCup(13)).isEqualTo(0);
+    }
+
+    @Test
+    public void nextPit_otherMancalasSkipped() {
+        final BoardShape shape = BoardShape.of(3, 4);
+
+        assertThat(shape.nextPit(0, 3)).isEqualTo(4);
+        assertThat(shape.nextPit(1, 3)).isEqualTo(5);
+        assertThat(shape.nextPit(0, 8)).isEqualTo(10);
+        assertThat(shape.nextPit(1, 8)).isEqualTo(9);
+        assertThat(shape.nextPit(0, 13)).isEqualTo(0);
+        assertThat(shape.nextPit(2, 13)).isEqualTo(14);
+        assertThat(shape.nextPit(2, 14)).isEqualTo(0);
+    }
+
+    @Test
+    public void seatOf_pitsPerSeat() {
+        final BoardShape shape = BoardShape.of(3, 4);
+
+        assertThat(shape.seatOf(4)).isEqualTo(0);
+        assertThat(shape.seatOf(5)).isEqualTo(1);
+        assertThat(shape.seatOf(14)).isEqualTo(2);
+        assertThat(shape.isMancala(9)).isTrue();
+        assertThat(shape.isMancala(8)).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package com.sm.mancala.domain.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.player.PlayersGroup;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class BoardStateCodecTest {
+
+    @Test
+    public void pack_roundTrip() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+        state.makeMove(2);
+        state.setStones(9, 255);
+        state.setActiveSeat(1);
+
+        final PackedBoardState packed = BoardStateCodec.pack(state);
+
+        assertThat(BoardStateCodec.unpack(packed)).isEqualTo(state);
+        assertThat(packed).isEqualTo(BoardStateCodec.pack(state.copy()));
+    }
+
+    @Test
+    public void pack_differentActiveSeat_differentKey() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+        final BoardState otherSeatState = state.copy();
+        otherSeatState.setActiveSeat(1);
+
+        assertThat(BoardStateCodec.pack(state))
+                .isNotEqualTo(BoardStateCodec.pack(otherSeatState));
+    }
+
+    @Test
+    public void isPackable_false_forLargeCountsAndOtherShapes() {
+        final BoardState largeState = BoardState.createInitialState(2, 6, 256);
+        final BoardState otherShapeState = BoardState.createInitialState(3, 6, 6);
+
+        assertThat(BoardStateCodec.isPackable(largeState)).isFalse();
+        assertThat(BoardStateCodec.isPackable(otherShapeState)).isFalse();
+        assertThrows(IllegalArgumentException.class, () -> BoardStateCodec.pack(largeState));
+    }
+
+    @Test
+    public void encode_roundTrip_anyShape() {
+        final BoardState state = BoardState.createInitialState(3, 8, 1000);
+        state.makeMove(4);
+        state.setActiveSeat(2);
+
+        final byte[] encoded = BoardStateCodec.encode(state);
+
+        assertThat(BoardStateCodec.decode(encoded)).isEqualTo(state);
+    }
+
+    @Test
+    public void encode_standardBoard_oneBytePerPit() {
+        final BoardState state = BoardState.createInitialState(2, 6, 6);
+
+        assertThat(BoardStateCodec.encode(state)).hasSize(3 + state.getPitsNumber());
+    }
+
+    @Test
+    public void decode_truncatedBytes_rejected() {
+        final byte[] encoded = BoardStateCodec.encode(BoardState.createInitialState(2, 6, 6));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> BoardStateCodec.decode(Arrays.copyOf(encoded, encoded.length - 1))
+        );
+    }
+
+    @Test
+    public void entitiesRoundTrip_stateAppliedToAnotherGame() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Game game = Game.createGame(
+                playersGroup, Board.createBoardForPlayers(playersGroup, 6, 6)
+        );
+        final BoardState state = game.toState();
+        state.makeMove(3);
+        state.setActiveSeat(1);
+        final PackedBoardState packed = BoardStateCodec.pack(state);
+
+        final PlayersGroup otherPlayersGroup = PlayersGroup.createPlayersGroup(2);
+        final Game otherGame = Game.createGame(
+                otherPlayersGroup, Board.createBoardForPlayers(otherPlayersGroup, 6, 6)
+        );
+        otherGame.applyState(BoardStateCodec.unpack(packed));
+
+        assertThat(otherGame.toState()).isEqualTo(state);
+        assertThat(otherPlayersGroup.getActivePlayerIndex()).isEqualTo(1);
+        assertThat(otherPlayersGroup.getPlayers().get(0).getCupStoneCount())
+                .isEqualTo(state.getCupStones(0));
+    }
+}
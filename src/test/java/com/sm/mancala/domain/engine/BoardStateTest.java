@@ -0,0 +1,360 @@
+package com.sm.mancala.domain.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class BoardStateTest {
+
+    private final int playersNumber = 2;
+    private final int cupsNumber = 6;
+    private final int stonesPerCup = 6;
+
+    @Test
+    public void createInitialState_cupsFilledMancalasEmpty() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+
+        assertThat(state.getPitsNumber()).isEqualTo(playersNumber * (cupsNumber + 1));
+        for (int i = 0; i < state.getPitsNumber(); i++) {
+            assertThat(state.getStones(i)).isEqualTo(state.isMancala(i) ? 0 : stonesPerCup);
+        }
+        assertThat(state.mancalaIndex(0)).isEqualTo(cupsNumber);
+        assertThat(state.mancalaIndex(1)).isEqualTo(2 * cupsNumber + 1);
+        assertThat(state.getLastCupIndex()).isEqualTo(state.getPitsNumber() - 2);
+    }
+
+    @Test
+    public void makeMove_lastStoneInOwnMancala() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+
+        final int lastPitIndex = state.makeMove(0);
+
+        assertThat(lastPitIndex).isEqualTo(state.mancalaIndex(0));
+        assertThat(state.getStones(0)).isEqualTo(0);
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(1);
+        for (int i = 1; i < cupsNumber; i++) {
+            assertThat(state.getStones(i)).isEqualTo(stonesPerCup + 1);
+        }
+    }
+
+    @Test
+    public void makeMove_opponentMancalaSkipped() {
+        final int stonesPerCup = 8;
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+
+        final int lastPitIndex = state.makeMove(5);
+
+        assertThat(lastPitIndex).isEqualTo(0);
+        assertThat(state.getStones(0)).isEqualTo(stonesPerCup + 1);
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(1);
+        assertThat(state.getStones(state.mancalaIndex(1))).isEqualTo(0);
+    }
+
+    @Test
+    public void makeMove_captureFromOppositeCup() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        state.setStones(0, 1);
+        state.setStones(1, 0);
+
+        final int lastPitIndex = state.makeMove(0);
+
+        assertThat(lastPitIndex).isEqualTo(1);
+        assertThat(state.getStones(1)).isEqualTo(0);
+        assertThat(state.getStones(state.getLastCupIndex() - 1)).isEqualTo(0);
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(stonesPerCup + 1);
+    }
+
+    @Test
+    public void makeMove_noCaptureWhenOppositeCupEmpty() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        state.setStones(0, 1);
+        state.setStones(1, 0);
+        state.setStones(state.getLastCupIndex() - 1, 0);
+
+        state.makeMove(0);
+
+        assertThat(state.getStones(1)).isEqualTo(1);
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(0);
+    }
+
+    @Test
+    public void makeMove_largeStoneCounts_sameResultAsStoneByStoneSowing() {
+        for (int stonesPerCup = 1; stonesPerCup <= 60; stonesPerCup++) {
+            for (int cupIndex = 0; cupIndex < cupsNumber; cupIndex++) {
+                final BoardState state = BoardState.createInitialState(
+                        playersNumber, cupsNumber, stonesPerCup
+                );
+                state.setStones(cupIndex, stonesPerCup * 37 + cupIndex);
+                final BoardState expected = state.copy();
+                final int expectedLastPitIndex = sowStoneByStone(expected, cupIndex);
+
+                final int lastPitIndex = state.makeMove(cupIndex);
+
+                assertThat(lastPitIndex).isEqualTo(expectedLastPitIndex);
+                assertThat(state).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    public void makeMove_morePlayers_sameResultAsStoneByStoneSowing() {
+        for (int players = 3; players <= 4; players++) {
+            for (int stonesPerCup = 1; stonesPerCup <= 30; stonesPerCup++) {
+                final BoardState initialState = BoardState.createInitialState(
+                        players, 5, stonesPerCup
+                );
+                for (int cupIndex = 0; cupIndex < initialState.getPitsNumber(); cupIndex++) {
+                    if (initialState.isMancala(cupIndex)) {
+                        continue;
+                    }
+                    final BoardState state = initialState.copy();
+                    // an empty cup per seat makes captures possible
+                    for (int seat = 0; seat < players; seat++) {
+                        state.setStones(state.cupIndex(seat, 1 + stonesPerCup % 5), 0);
+                    }
+                    if (state.getStones(cupIndex) == 0) {
+                        continue;
+                    }
+                    final BoardState expected = state.copy();
+                    final int expectedLastPitIndex = sowStoneByStone(expected, cupIndex);
+
+                    final int lastPitIndex = state.makeMove(cupIndex);
+
+                    assertThat(lastPitIndex).isEqualTo(expectedLastPitIndex);
+                    assertThat(state).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void makeMove_threePlayers_captureFromNextSeatRow() {
+        final BoardState state = new BoardState(3, 6);
+        // seat 1: the stone from cup 2 lands in the empty cup 3
+        state.setStones(state.cupIndex(1, 2), 1);
+        state.setStones(state.cupIndex(1, 5), 1);
+        // cup 3 of seat 1 is opposite to cup 4 of seat 2
+        state.setStones(state.cupIndex(2, 4), 7);
+        state.setStones(state.cupIndex(0, 4), 9);
+
+        state.makeMove(state.cupIndex(1, 2));
+
+        assertThat(state.getStones(state.mancalaIndex(1))).isEqualTo(8);
+        assertThat(state.getStones(state.cupIndex(2, 4))).isEqualTo(0);
+        assertThat(state.getStones(state.cupIndex(0, 4))).isEqualTo(9);
+        assertThat(state.getCupStones(2)).isEqualTo(0);
+    }
+
+    @Test
+    public void makeMove_exactNumberOfLaps_lastStoneInSelectedCup() {
+        final BoardState state = BoardState.createInitialState(playersNumber, cupsNumber, 0);
+        final int sowablePitsNumber = state.getPitsNumber() - 1;
+        state.setStones(2, sowablePitsNumber * 3);
+
+        final int lastPitIndex = state.makeMove(2);
+
+        assertThat(lastPitIndex).isEqualTo(2);
+        assertThat(state.getStones(2)).isEqualTo(3);
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(3);
+        assertThat(state.getStones(state.mancalaIndex(1))).isEqualTo(0);
+    }
+
+    @Test
+    public void getCupStones_keptUpToDateByMoves() {
+        final BoardState state = BoardState.createInitialState(playersNumber, cupsNumber, 4);
+        final int[] cupNumbers = {3, 6, 1, 5, 2, 4, 6, 1, 3, 2};
+
+        for (int i = 0; i < cupNumbers.length && !state.hasFinishedSeat(); i++) {
+            final int seat = i % playersNumber;
+            final int cupIndex = state.cupIndex(seat, cupNumbers[i]);
+            if (state.isMoveAllowed(seat, cupIndex)) {
+                state.makeMove(cupIndex);
+            }
+
+            for (int s = 0; s < playersNumber; s++) {
+                int expectedCupStones = 0;
+                for (int cupNumber = 1; cupNumber <= cupsNumber; cupNumber++) {
+                    expectedCupStones += state.getStones(state.cupIndex(s, cupNumber));
+                }
+                assertThat(state.getCupStones(s)).isEqualTo(expectedCupStones);
+            }
+        }
+    }
+
+    @Test
+    public void stonesHash_incrementalEqualsRecomputed() {
+        final BoardState state = BoardState.createInitialState(playersNumber, cupsNumber, 30);
+        final int[] cupNumbers = {3, 6, 1, 5, 2, 4, 6, 1, 3, 2};
+
+        for (int i = 0; i < cupNumbers.length; i++) {
+            final int seat = i % playersNumber;
+            final int cupIndex = state.cupIndex(seat, cupNumbers[i]);
+            if (state.isMoveAllowed(seat, cupIndex)) {
+                state.makeMove(cupIndex);
+            }
+            assertThat(state.getStonesHash()).isEqualTo(recomputeStonesHash(state));
+        }
+
+        state.collectRemainingStones();
+        assertThat(state.getStonesHash()).isEqualTo(recomputeStonesHash(state));
+    }
+
+    @Test
+    public void positionHash_dependsOnStonesAndSideToMove() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        final BoardState otherSeatState = state.copy();
+        otherSeatState.setActiveSeat(1);
+        final BoardState movedState = state.copy();
+        movedState.makeMove(1);
+
+        assertThat(otherSeatState.getStonesHash()).isEqualTo(state.getStonesHash());
+        assertThat(otherSeatState.getPositionHash()).isNotEqualTo(state.getPositionHash());
+        assertThat(movedState.getPositionHash()).isNotEqualTo(state.getPositionHash());
+        assertThat(BoardState.createInitialState(playersNumber, cupsNumber - 1, 0)
+                .getStonesHash())
+                .isNotEqualTo(BoardState.createInitialState(playersNumber, cupsNumber, 0)
+                        .getStonesHash());
+    }
+
+    @Test
+    public void isMoveAllowed_onlyOwnNonEmptyCups() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        state.setStones(2, 0);
+
+        assertThat(state.isMoveAllowed(0, 0)).isTrue();
+        assertThat(state.isMoveAllowed(0, 2)).isFalse();
+        assertThat(state.isMoveAllowed(0, state.mancalaIndex(0))).isFalse();
+        assertThat(state.isMoveAllowed(0, state.cupIndex(1, 1))).isFalse();
+        assertThat(state.isMoveAllowed(1, state.cupIndex(1, 1))).isTrue();
+    }
+
+    @Test
+    public void legalMovesMask_nonEmptyCupsOfSeat() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        state.setStones(state.cupIndex(1, 2), 0);
+        state.setStones(state.cupIndex(1, 6), 0);
+
+        assertThat(state.legalMovesMask(0)).isEqualTo(0b111111L);
+        assertThat(state.legalMovesMask(1)).isEqualTo(0b011101L);
+        assertThat(state.legalCupNumbers(1)).containsExactly(1, 3, 4, 5);
+
+        state.collectRemainingStones();
+        assertThat(state.legalMovesMask(0)).isEqualTo(0L);
+        assertThat(state.legalCupNumbers(0)).isEmpty();
+    }
+
+    @Test
+    public void collectRemainingStones_allStonesInMancalas() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+        assertThat(state.hasFinishedSeat()).isFalse();
+
+        state.collectRemainingStones();
+
+        assertThat(state.hasFinishedSeat()).isTrue();
+        assertThat(state.isSeatFinished(0)).isTrue();
+        assertThat(state.isSeatFinished(1)).isTrue();
+        assertThat(state.getStones(state.mancalaIndex(0))).isEqualTo(cupsNumber * stonesPerCup);
+        assertThat(state.getStones(state.mancalaIndex(1))).isEqualTo(cupsNumber * stonesPerCup);
+    }
+
+    @Test
+    public void getWinnerSeat_mostStonesInMancala_winsSharedFirstPlaceDraws() {
+        final BoardState state = new BoardState(3, cupsNumber);
+        state.setStones(state.mancalaIndex(0), 10);
+        state.setStones(state.mancalaIndex(1), 12);
+        state.setStones(state.mancalaIndex(2), 12);
+
+        assertThat(state.getWinnerSeat()).isEqualTo(-1);
+
+        state.setStones(state.mancalaIndex(0), 13);
+
+        assertThat(state.getWinnerSeat()).isEqualTo(0);
+    }
+
+    @Test
+    public void isDraw_allMancalasEqual_firstLeadingSeatOtherwise() {
+        final BoardState state = new BoardState(3, cupsNumber);
+        state.setStones(state.mancalaIndex(0), 12);
+        state.setStones(state.mancalaIndex(1), 12);
+        state.setStones(state.mancalaIndex(2), 12);
+
+        assertThat(state.isDraw()).isTrue();
+
+        state.setStones(state.mancalaIndex(0), 10);
+
+        assertThat(state.isDraw()).isFalse();
+        assertThat(state.getLeadingSeat()).isEqualTo(1);
+    }
+
+    @Test
+    public void copy_independentOfOriginal() {
+        final BoardState state = BoardState.createInitialState(
+                playersNumber, cupsNumber, stonesPerCup
+        );
+
+        final BoardState copy = state.copy();
+        copy.makeMove(0);
+
+        assertThat(copy).isNotEqualTo(state);
+        state.copyFrom(copy);
+        assertThat(state).isEqualTo(copy);
+    }
+
+    private long recomputeStonesHash(BoardState state) {
+        final BoardState freshState = new BoardState(
+                state.getPlayersNumber(), state.getCupsNumber()
+        );
+        for (int i = 0; i < state.getPitsNumber(); i++) {
+            freshState.setStones(i, state.getStones(i));
+        }
+        return freshState.getStonesHash();
+    }
+
+    // reference implementation: one stone per step, capture rules applied afterwards
+    private int sowStoneByStone(BoardState state, int cupIndex) {
+        final int seat = state.seatOf(cupIndex);
+        int stonesInHand = state.getStones(cupIndex);
+        state.setStones(cupIndex, 0);
+
+        int currentIndex = cupIndex;
+        while (stonesInHand > 0) {
+            currentIndex = (currentIndex + 1) % state.getPitsNumber();
+            if (!state.isMancala(currentIndex) || state.seatOf(currentIndex) == seat) {
+                state.setStones(currentIndex, state.getStones(currentIndex) + 1);
+                stonesInHand--;
+            }
+        }
+
+        // mirrored cup in the row of the next seat
+        final int pitsPerPlayer = state.getCupsNumber() + 1;
+        final int oppositeIndex = (seat + 1) % state.getPlayersNumber() * pitsPerPlayer
+                + state.getCupsNumber() - 1 - currentIndex % pitsPerPlayer;
+        if (!state.isMancala(currentIndex) && state.seatOf(currentIndex) == seat
+                && state.getStones(currentIndex) == 1 && state.getStones(oppositeIndex) != 0) {
+            final int mancalaIndex = state.mancalaIndex(seat);
+            state.setStones(mancalaIndex, state.getStones(mancalaIndex) + 1
+                    + state.getStones(oppositeIndex));
+            state.setStones(currentIndex, 0);
+            state.setStones(oppositeIndex, 0);
+        }
+        return currentIndex;
+    }
+}
@@ -9,6 +9,7 @@ import com.sm.mancala.domain.player.PlayersGroup;
 import com.sm.mancala.web.model.BoardDto;
 import com.sm.mancala.web.model.PitDto;
 import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 public class BoardTest {
@@ -49,6 +50,38 @@ public class BoardTest {
         assertThat(currentBoardIndex).isEqualTo(totalPitsPerPlayer * playersNumber);
     }
 
+    @Test
+    public void createBoardForPlayers_stonesArray_countsOfAllPits() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+
+        final Board board = Board.createBoardForPlayers(
+                playersGroup, cupsNumber, stonesPerCup, BoardStorage.STONES_ARRAY
+        );
+
+        assertThat(board.getStorage()).isEqualTo(BoardStorage.STONES_ARRAY);
+        assertThat(board.getStones().toState()).isEqualTo(board.toState());
+    }
+
+    @Test
+    public void makeMove_stonesArray_countsFollowMovesAndDirectPitChanges() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        addIdForPlayers(playersGroup);
+        final Board board = Board.createBoardForPlayers(
+                playersGroup, cupsNumber, stonesPerCup, BoardStorage.STONES_ARRAY
+        );
+        final PitStones initialStones = board.getStones();
+
+        board.makeMove(playersGroup.getActivePlayer(), 2);
+
+        assertThat(board.getStones()).isNotEqualTo(initialStones);
+        assertThat(board.getStones().toState()).isEqualTo(board.toState());
+
+        collectStonesToMancala(playersGroup.getActivePlayer());
+
+        assertThat(board.getStones().toState()).isEqualTo(board.toState());
+        assertThat(board.getStones().toState().getCupStones(0)).isZero();
+    }
+
     @Test
     public void makeMove_stonesDistributedToPlayerCupsAndMancala() {
         final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
@@ -153,10 +186,85 @@ public class BoardTest {
         assertThat(nextPlayer.getMancala().isEmpty()).isTrue();
     }
 
+    @Test
+    public void getStonesHash_updatedByMovesAndDirectPitChanges() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        addIdForPlayers(playersGroup);
+        final Board board = Board.createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup);
+        final long initialHash = board.getStonesHash();
+
+        final Player activePlayer = playersGroup.getActivePlayer();
+        board.makeMove(activePlayer, 2);
+        final long hashAfterMove = board.getStonesHash();
+        assertThat(hashAfterMove).isNotEqualTo(initialHash);
+        assertThat(hashAfterMove).isEqualTo(board.toState().getStonesHash());
+
+        activePlayer.getCupByNumber(1).pickUpStones();
+        assertThat(board.getStonesHash()).isNotEqualTo(hashAfterMove);
+        assertThat(board.toState().getStones(0)).isEqualTo(0);
+    }
+
+    @Test
+    public void takeDelta_onlyPitsChangedSinceLastTaken() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        final Board board = Board.createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup);
+        final Player player = playersGroup.getPlayers().get(0);
+
+        // six stones from the second cup reach the first cup of the opponent
+        board.makeMove(player, 1);
+        final BoardDelta delta = board.takeDelta();
+
+        assertThat(delta.pitIndices()).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(delta.stoneCounts()).containsExactly(0, 7, 7, 7, 7, 1, 7);
+        assertThat(delta.stones()).isNull();
+        assertThat(board.takeDelta().isEmpty()).isTrue();
+
+        collectStonesToMancala(player);
+
+        assertThat(board.takeDelta().pitIndices()).containsExactly(0, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    public void makeMove_lapsAndCaptures_pitsMatchState() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        addIdForPlayers(playersGroup);
+        // more stones than sowable pits in some cups, so moves go round the board
+        final Board board = Board.createBoardForPlayers(playersGroup, cupsNumber, 2);
+        for (int i = 0; i < 20; i++) {
+            playersGroup.getPlayers().get(0).getCupByNumber(1).sowStones();
+        }
+        final Random random = new Random(7);
+
+        for (int i = 0; i < 200 && !playersGroup.hasFinishedPlayer(); i++) {
+            final int[] cupNumbers = board.getLegalCupNumbers(playersGroup.getActivePlayerIndex());
+            final Player player = playersGroup.getActivePlayer();
+            board.makeMove(
+                    player,
+                    player.getCupByNumber(cupNumbers[random.nextInt(cupNumbers.length)])
+                            .getBoardIndex()
+            );
+            playersGroup.moveToNextPlayer();
+
+            final List<Pit> pits = board.getPits();
+            for (int j = 0; j < pits.size(); j++) {
+                assertThat(pits.get(j).getStoneCount()).isEqualTo(board.toState().getStones(j));
+            }
+        }
+    }
+
     private void addIdForPlayers(PlayersGroup playersGroup) {
         final List<Player> players = playersGroup.getPlayers();
         for (int i = 0; i < players.size(); i++) {
             players.get(i).setId((long) (i + 1));
         }
     }
+
+    // moves the stones of the player's cups into its mancala directly on the pits
+    private void collectStonesToMancala(Player player) {
+        int stones = 0;
+        for (int cupNumber = 1; cupNumber <= cupsNumber; cupNumber++) {
+            stones += player.getCupByNumber(cupNumber).pickUpStones();
+        }
+        player.getMancala().sowStones(stones);
+    }
 }
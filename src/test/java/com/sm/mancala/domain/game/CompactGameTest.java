@@ -0,0 +1,117 @@
+package com.sm.mancala.domain.game;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.pit.Pit;
+import com.sm.mancala.domain.player.Player;
+import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.web.model.PitDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CompactGameTest {
+
+    private static final int CUPS_NUMBER = 6;
+    private static final int STONES_PER_CUP = 6;
+
+    @Test
+    public void toGame_pitRows_sameGameWithPitIds() {
+        final Game game = createGame(BoardStorage.PIT_ROWS, true);
+        final List<Pit> pits = game.getBoard().getPits();
+        for (int i = 0; i < pits.size(); i++) {
+            pits.get(i).setId(100L + i);
+        }
+        game.getBoard().makeMove(game.getPlayersGroup().getActivePlayer(), 1);
+        game.getPlayersGroup().moveToNextPlayer();
+        game.setVersion(1);
+
+        final Game restored = CompactGame.of(game).toGame();
+
+        assertThat(restored.toDto()).isEqualTo(game.toDto());
+        assertThat(restored.getVersion()).isEqualTo(1);
+        assertThat(restored.toDto().getBoard().getPits()).extracting(PitDto::getId)
+                .startsWith(100L, 101L);
+        assertThat(restored.getPlayersGroup().getActivePlayer().isBot()).isTrue();
+        assertThat(restored.toState()).isEqualTo(game.toState());
+    }
+
+    @Test
+    public void toGame_stonesArray_sameGame() {
+        final Game game = createGame(BoardStorage.STONES_ARRAY, false);
+        game.getBoard().makeMove(game.getPlayersGroup().getActivePlayer(), 2);
+
+        final Game restored = CompactGame.of(game).toGame();
+
+        assertThat(restored.toDto()).isEqualTo(game.toDto());
+        assertThat(restored.getBoard().getStones()).isEqualTo(game.getBoard().getStones());
+    }
+
+    @Test
+    public void toGame_moveLog_movesNumberKept() {
+        final Game game = createGame(BoardStorage.MOVE_LOG, false);
+        game.getBoard().makeMove(game.getPlayersGroup().getActivePlayer(), 0);
+        game.getBoard().takeDelta();
+
+        final Game restored = CompactGame.of(game).toGame();
+        restored.getBoard().makeMove(restored.getPlayersGroup().getActivePlayer(), 1);
+
+        final BoardDelta delta = restored.getBoard().takeDelta();
+        assertThat(delta.movesBefore()).isEqualTo(1);
+        assertThat(delta.moves()).containsExactly(new PlayedMove(1L, 2));
+    }
+
+    @Test
+    public void toDto_pitRowsWithBot_sameAsGameDto() {
+        final Game game = createGame(BoardStorage.PIT_ROWS, true);
+        final List<Pit> pits = game.getBoard().getPits();
+        for (int i = 0; i < pits.size(); i++) {
+            pits.get(i).setId(100L + i);
+        }
+        game.getBoard().makeMove(game.getPlayersGroup().getActivePlayer(), 1);
+        game.getPlayersGroup().moveToNextPlayer();
+
+        assertThat(CompactGame.of(game).toDto()).isEqualTo(game.toDto());
+    }
+
+    @Test
+    public void toDto_stonesArray_sameAsGameDto() {
+        final Game game = createGame(BoardStorage.STONES_ARRAY, false);
+        game.getBoard().makeMove(game.getPlayersGroup().getActivePlayer(), 2);
+
+        assertThat(CompactGame.of(game).toDto()).isEqualTo(game.toDto());
+    }
+
+    @Test
+    public void toGame_eachCallNewGame() {
+        final CompactGame compactGame = CompactGame.of(createGame(BoardStorage.PIT_ROWS, false));
+
+        final Game first = compactGame.toGame();
+        first.getBoard().makeMove(first.getPlayersGroup().getActivePlayer(), 0);
+
+        assertThat(compactGame.toGame().toState()).isNotEqualTo(first.toState());
+    }
+
+    @Test
+    public void of_finishedGame_rejected() {
+        final Game game = createGame(BoardStorage.PIT_ROWS, false);
+        game.setStatus(GameStatus.DRAW);
+
+        assertThrows(IllegalArgumentException.class, () -> CompactGame.of(game));
+    }
+
+    private Game createGame(BoardStorage storage, boolean botOpponent) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2, botOpponent);
+        playersGroup.setId(10L);
+        final List<Player> players = playersGroup.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            players.get(i).setId(1L + i);
+        }
+        final Game game = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, CUPS_NUMBER, STONES_PER_CUP, storage)
+        );
+        game.setId(20L);
+        return game;
+    }
+}
@@ -3,7 +3,9 @@ package com.sm.mancala.domain.game;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
+import com.sm.mancala.domain.engine.BoardState;
 import com.sm.mancala.domain.player.PlayersGroup;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class GameTest {
@@ -19,4 +21,33 @@ public class GameTest {
         assertSame(game.getBoard(), boardRef);
         assertSame(game.getPlayersGroup(), playersGroupRef);
     }
+
+    @Test
+    public void restore_moveLog_sameGameAsPlayedFromSnapshotOrInitialCounts() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Game game = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, 6, 6, BoardStorage.MOVE_LOG)
+        );
+        final BoardState expected = game.toState();
+        expected.playMove(expected.cupIndex(0, 1));
+        final BoardState snapshot = expected.copy();
+        expected.playMove(expected.cupIndex(0, 2));
+        expected.playMove(expected.cupIndex(1, 3));
+        final List<PlayedMove> moves = List.of(
+                new PlayedMove(1L, 1), new PlayedMove(1L, 2), new PlayedMove(2L, 3)
+        );
+
+        game.restore(null, 0, moves);
+
+        assertThat(game.toState()).isEqualTo(expected);
+        assertThat(game.getPlayersGroup().getActivePlayerIndex()).isEqualTo(0);
+        assertThat(game.getBoard().takeDelta().movesBefore()).isEqualTo(3);
+
+        game.restore(snapshot, 1, moves.subList(1, 3));
+
+        assertThat(game.toState()).isEqualTo(expected);
+        assertThat(game.getBoard().toDto().getPits().get(6).getStoneCount())
+                .isEqualTo(expected.getStones(6));
+    }
 }
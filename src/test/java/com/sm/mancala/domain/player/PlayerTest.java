@@ -1,35 +1,21 @@
 package com.sm.mancala.domain.player;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.sm.mancala.domain.game.Board;
 import com.sm.mancala.domain.pit.Cup;
-import com.sm.mancala.domain.pit.Mancala;
 import com.sm.mancala.exception.GameRuleException;
-import java.util.ArrayList;
-import java.util.List;
 import org.junit.jupiter.api.Test;
 
 public class PlayerTest {
 
-    private final int cupsNumber = 6;
+    private final int cupsNumber = 2;
     private final int stonesPerCup = 6;
-    private final PlayersGroup playersGroupRef = PlayersGroup.createPlayersGroup(2);
-    private final Board boardRef = Board.createBoardForPlayers(
-            playersGroupRef, cupsNumber, stonesPerCup
-    );
 
     @Test
     public void isFinished_true_allCupsAreEmpty() {
-        final Player player = Player.createPlayer(playersGroupRef);
-
-        final List<Cup> cups = new ArrayList<>();
-        cups.add(new Cup(0, player, boardRef));
-        cups.add(new Cup(0, player, boardRef));
-        final Mancala mancala = new Mancala(player, boardRef);
-        player.setPits(cups, mancala);
+        final Player player = createPlayerOnBoard(0);
 
         boolean isFinished = player.isFinished();
 
@@ -38,13 +24,8 @@ public class PlayerTest {
 
     @Test
     public void isFinished_false_cupsAreNotEntirelyEmpty() {
-        final Player player = Player.createPlayer(playersGroupRef);
-
-        final List<Cup> cups = new ArrayList<>();
-        cups.add(new Cup(stonesPerCup, player, boardRef));
-        cups.add(new Cup(0, player, boardRef));
-        final Mancala mancala = new Mancala(player, boardRef);
-        player.setPits(cups, mancala);
+        final Player player = createPlayerOnBoard(stonesPerCup);
+        player.getCupByNumber(1).pickUpStones();
 
         boolean isFinished = player.isFinished();
 
@@ -52,50 +33,43 @@ public class PlayerTest {
     }
 
     @Test
-    public void collectStonesToMancala_stonesSuccessfullyCollected() {
-        final Player player = Player.createPlayer(playersGroupRef);
+    public void cupStoneCount_keptUpToDateByCups() {
+        final Player player = createPlayerOnBoard(stonesPerCup);
+        assertThat(player.getCupStoneCount()).isEqualTo(stonesPerCup * cupsNumber);
 
-        final List<Cup> cups = new ArrayList<>();
-        cups.add(new Cup(stonesPerCup, player, boardRef));
-        cups.add(new Cup(stonesPerCup, player, boardRef));
-        final Mancala mancala = new Mancala(player, boardRef);
-        player.setPits(cups, mancala);
+        player.getCupByNumber(1).pickUpStones();
+        player.getCupByNumber(2).sowStones();
+        assertThat(player.getCupStoneCount()).isEqualTo(stonesPerCup + 1);
 
-        final Mancala mancalaWithStones = player.collectStonesToMancala();
-
-        assertThat(mancalaWithStones.getStoneCount()).isEqualTo(stonesPerCup * cups.size());
+        player.getCupByNumber(2).pickUpStones();
+        assertThat(player.getCupStoneCount()).isEqualTo(0);
         assertThat(player.isFinished()).isTrue();
     }
 
     @Test
     public void getCupsByNumber_validCupNumber() {
-        final Player player = Player.createPlayer(playersGroupRef);
-        final Cup cupToFindRef = new Cup(stonesPerCup, player, boardRef);
-
-        final List<Cup> cups = new ArrayList<>();
-        cups.add(cupToFindRef);
-        cups.add(new Cup(0, player, boardRef));
-        final Mancala mancala = new Mancala(player, boardRef);
-        player.setPits(cups, mancala);
+        final Player player = createPlayerOnBoard(stonesPerCup);
 
-        final Cup foundCupRef = player.getCupByNumber(1);
+        final Cup foundCupRef = player.getCupByNumber(2);
 
-        assertSame(foundCupRef, cupToFindRef);
+        assertThat(foundCupRef.getBoardIndex()).isEqualTo(1);
+        assertThat(foundCupRef.getBoardNumberForPlayer()).isEqualTo(2);
     }
 
     @Test
     public void getCupsByNumber_invalidCupNumber() {
-        final Player player = Player.createPlayer(playersGroupRef);
-
-        final List<Cup> cups = new ArrayList<>();
-        cups.add(new Cup(stonesPerCup, player, boardRef));
-        final Mancala mancala = new Mancala(player, boardRef);
-
-        player.setPits(cups, mancala);
+        final Player player = createPlayerOnBoard(stonesPerCup);
 
         assertThrows(
                 GameRuleException.class,
-                () -> player.getCupByNumber(cups.size() + 1)
+                () -> player.getCupByNumber(cupsNumber + 1)
         );
     }
+
+    // the cups and the mancala are the player's pits on a board
+    private Player createPlayerOnBoard(int stonesPerCup) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        Board.createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup);
+        return playersGroup.getPlayers().get(0);
+    }
 }
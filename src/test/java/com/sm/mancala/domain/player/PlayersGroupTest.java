@@ -4,7 +4,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.sm.mancala.domain.game.Board;
-import com.sm.mancala.domain.pit.Mancala;
 import com.sm.mancala.web.model.PlayersGroupDto;
 import java.util.List;
 import org.junit.jupiter.api.Test;
@@ -28,6 +27,17 @@ public class PlayersGroupTest {
         assertThat(playersGroupDto.getActivePlayerIndex()).isEqualTo(0);
     }
 
+    @Test
+    public void createPlayersGroup_botOpponent_onlyLastPlayerIsBot() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber, true);
+
+        final List<Player> players = playersGroup.getPlayers();
+        assertThat(players.get(0).isBot()).isFalse();
+        assertThat(players.get(playersNumber - 1).isBot()).isTrue();
+        assertThat(PlayersGroup.createPlayersGroup(playersNumber).getPlayers())
+                .noneMatch(Player::isBot);
+    }
+
     @Test
     public void moveToNextPlayer_activePlayerIndexMoved() {
         final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
@@ -79,25 +89,6 @@ public class PlayersGroupTest {
         assertSame(activePlayer, playersGroup.getPlayers().get(1));
     }
 
-    @Test
-    public void getFinalMancalaStates_allStonesInMancalas() {
-        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
-        final int cupsNumber = 6;
-        final int stonesPerCup = 4;
-        Board.createBoardForPlayers(playersGroup, cupsNumber, stonesPerCup);
-
-        final List<Mancala> finalMancalaStates = playersGroup.getFinalMancalaStates();
-
-        assertThat(finalMancalaStates.size()).isEqualTo(playersNumber);
-        assertThat(
-                finalMancalaStates.stream()
-                        .allMatch(mancala -> mancala.getStoneCount() == cupsNumber * stonesPerCup)
-        ).isTrue();
-        assertThat(
-                playersGroup.getPlayers().stream().allMatch(Player::isFinished)
-        ).isTrue();
-    }
-
     @Test
     public void hasFinishedPlayer_false_initialState() {
         final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
@@ -112,10 +103,28 @@ public class PlayersGroupTest {
     public void hasFinishedPlayer_true_initialState() {
         final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
         Board.createBoardForPlayers(playersGroup, 6, 4);
-        playersGroup.getActivePlayer().collectStonesToMancala();
+        for (int cupNumber = 1; cupNumber <= 6; cupNumber++) {
+            playersGroup.getActivePlayer().getCupByNumber(cupNumber).pickUpStones();
+        }
 
         final boolean hasFinishedPlayer = playersGroup.hasFinishedPlayer();
 
         assertThat(hasFinishedPlayer).isTrue();
     }
+
+    @Test
+    public void hasFinishedPlayer_true_afterLastCupEmptiedByMove() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(playersNumber);
+        final Board board = Board.createBoardForPlayers(playersGroup, 6, 1);
+        final Player activePlayer = playersGroup.getActivePlayer();
+        for (int cupNumber = 1; cupNumber < 6; cupNumber++) {
+            activePlayer.getCupByNumber(cupNumber).pickUpStones();
+        }
+        assertThat(playersGroup.hasFinishedPlayer()).isFalse();
+
+        board.makeMove(activePlayer, activePlayer.getCupByNumber(6).getBoardIndex());
+
+        assertThat(activePlayer.getCupStoneCount()).isEqualTo(0);
+        assertThat(playersGroup.hasFinishedPlayer()).isTrue();
+    }
 }
@@ -3,6 +3,7 @@ package com.sm.mancala.properties;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.sm.mancala.MancalaApplication;
+import com.sm.mancala.domain.game.BoardStorage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -14,6 +15,8 @@ public class GamePropertiesTest {
 
     private static final int DEFAULT_CUPS_NUMBER = 6;
     private static final int PLAYERS_NUMBER = 2;
+    private static final int TRANSPOSITION_TABLE_MB = 1;
+    private static final int SNAPSHOT_INTERVAL = 4;
 
     @Autowired
     private GameProperties gameProperties;
@@ -22,5 +25,8 @@ public class GamePropertiesTest {
     void gameProperties_propertiesBindingSuccess() {
         assertThat(gameProperties.getCupsNumber()).isEqualTo(DEFAULT_CUPS_NUMBER);
         assertThat(gameProperties.getPlayersNumber()).isEqualTo(PLAYERS_NUMBER);
+        assertThat(gameProperties.getTranspositionTableMb()).isEqualTo(TRANSPOSITION_TABLE_MB);
+        assertThat(gameProperties.getBoardStorage()).isEqualTo(BoardStorage.PIT_ROWS);
+        assertThat(gameProperties.getSnapshotInterval()).isEqualTo(SNAPSHOT_INTERVAL);
     }
 }
@@ -0,0 +1,342 @@
+package com.sm.mancala.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.BoardStorage;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.Hint;
+import com.sm.mancala.domain.game.LegalMoves;
+import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.service.GameService;
+import com.sm.mancala.web.model.GameDto;
+import com.sm.mancala.web.model.GameMove;
+import com.sm.mancala.web.model.GameStatusDto;
+import com.sm.mancala.web.model.PitTypeDto;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.sm.mancala.repository.StatementCounter")
+public class GameRepositoryTest {
+
+    private static final int CUPS_NUMBER = 6;
+    private static final int STONES_PER_CUP = 6;
+    private static final int SNAPSHOT_INTERVAL = 4;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void findPlayableById_pitRows_wholeGameInTwoSelects() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        StatementCounter.clear();
+
+        final GameDto gameDto = loadDto(game.getId());
+
+        assertThat(gameDto.getBoard().getPits()).hasSize(2 * (CUPS_NUMBER + 1));
+        assertThat(StatementCounter.count("select")).isEqualTo(2);
+        assertThat(StatementCounter.statements()).hasSize(2);
+    }
+
+    @Test
+    public void findPlayableById_stonesArray_wholeGameInOneSelect() {
+        final Game game = saveGame(BoardStorage.STONES_ARRAY);
+        StatementCounter.clear();
+
+        final GameDto gameDto = loadDto(game.getId());
+
+        assertThat(gameDto.getBoard().getPits()).hasSize(2 * (CUPS_NUMBER + 1));
+        assertThat(gameDto.getBoard().getPits().get(CUPS_NUMBER).getType())
+                .isEqualTo(PitTypeDto.MANCALA);
+        assertThat(gameDto.getBoard().getPits().get(CUPS_NUMBER + 1).getPlayerId())
+                .isEqualTo(gameDto.getPlayersGroup().getPlayers().get(1).getId());
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    public void findPlayableById_noTransaction_wholeGameLoaded() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+
+        final GameDto gameDto = gameRepository.findPlayableById(game.getId()).orElseThrow().toDto();
+
+        assertThat(gameDto).isEqualTo(loadDto(game.getId()));
+    }
+
+    @Test
+    public void getHint_noTransaction_gameLoadedAndSearched() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final Long activePlayerId = game.getPlayersGroup().getActivePlayer().getId();
+
+        final LegalMoves legalMoves = gameService.getLegalMoves(game.getId());
+        final Hint hint = gameService.getHint(game.getId());
+
+        assertThat(legalMoves.cupNumbers()).hasSize(CUPS_NUMBER);
+        assertThat(hint.activePlayerId()).isEqualTo(activePlayerId);
+        assertThat(legalMoves.cupNumbers()).contains(hint.cupNumber());
+    }
+
+    @Test
+    public void createGames_insertsBatchedPerEntityType() {
+        final int gamesNumber = 20;
+        StatementCounter.clear();
+
+        final List<Game> games = gameService.createGames(2, STONES_PER_CUP, false, gamesNumber);
+
+        assertThat(games).hasSize(gamesNumber).allMatch(game -> game.getId() != null);
+        // pooled sequences hand out 50 ids per call instead of one per row
+        assertThat(StatementCounter.count("select next value")).isLessThan(gamesNumber);
+        // a batched statement is prepared once: board, cup, mancala, players group, player, game
+        assertThat(StatementCounter.count("insert")).isEqualTo(6);
+    }
+
+    @Test
+    public void getGameDtoById_activeGame_pollingServedFromCache() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        // read-through: the first read loads and caches the game
+        transactionTemplate.executeWithoutResult(status -> gameService.getGameById(game.getId()));
+        makeFirstMove(game, 2);
+        StatementCounter.clear();
+
+        final GameDto polled = gameService.getGameDtoById(game.getId());
+
+        assertThat(StatementCounter.statements()).isEmpty();
+        assertThat(polled).isEqualTo(loadDto(game.getId()));
+        assertThat(polled.getPlayersGroup().getActivePlayerIndex()).isEqualTo(1);
+    }
+
+    @Test
+    public void findPlayableById_unknownGame_empty() {
+        assertThat(gameRepository.findPlayableById(-1L)).isEmpty();
+    }
+
+    @Test
+    public void processMove_pitRows_onlySelectsFromHibernate() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        StatementCounter.clear();
+
+        makeFirstMove(game);
+
+        // nothing is dirty-checked, the changed pits are written in a JDBC batch
+        assertThat(StatementCounter.count("select")).isEqualTo(2);
+        assertThat(StatementCounter.statements()).hasSize(2);
+    }
+
+    @Test
+    public void processMove_stonesArray_onlySelectFromHibernate() {
+        final Game game = saveGame(BoardStorage.STONES_ARRAY);
+        StatementCounter.clear();
+
+        makeFirstMove(game);
+
+        assertThat(StatementCounter.count("select")).isEqualTo(1);
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    public void processMove_pitRows_sameStateAfterReload() {
+        assertSameStateAfterReload(BoardStorage.PIT_ROWS);
+    }
+
+    @Test
+    public void processMove_stonesArray_sameStateAfterReload() {
+        assertSameStateAfterReload(BoardStorage.STONES_ARRAY);
+    }
+
+    @Test
+    public void processMove_moveLog_sameStateAfterReload() {
+        assertSameStateAfterReload(BoardStorage.MOVE_LOG);
+    }
+
+    @Test
+    public void processMove_moveLog_rowPerMoveAndSnapshotEveryInterval() {
+        final Game game = saveGame(BoardStorage.MOVE_LOG);
+        final BoardState expected = game.toState();
+        final int movesNumber = 2 * SNAPSHOT_INTERVAL + 1;
+
+        for (int i = 0; i < movesNumber; i++) {
+            final LegalMoves legalMoves = gameService.getLegalMoves(game.getId());
+            final int cupNumber = legalMoves.cupNumbers()[0];
+            expected.playMove(expected.cupIndex(expected.getActiveSeat(), cupNumber));
+            gameService.processMove(new GameMove()
+                    .gameId(game.getId())
+                    .playerId(legalMoves.activePlayerId())
+                    .cupNumber(cupNumber));
+        }
+
+        assertThat(countRows("game_move", game.getId())).isEqualTo(movesNumber);
+        assertThat(countRows("game_snapshot", game.getId())).isEqualTo(2);
+        StatementCounter.clear();
+        final BoardState reloaded = transactionTemplate.execute(status -> gameRepository
+                .findPlayableById(game.getId())
+                .orElseThrow()
+                .toState());
+        assertThat(reloaded).isEqualTo(expected);
+        assertThat(reloaded.getActiveSeat()).isEqualTo(expected.getActiveSeat());
+        // the snapshot and the move tail are read with plain JDBC
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    public void processMove_finishingMove_statusAndCollectedStonesWritten() {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Game game = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, CUPS_NUMBER, STONES_PER_CUP)
+        );
+        final BoardState state = game.toState();
+        for (int i = 0; i < state.getPitsNumber(); i++) {
+            state.setStones(i, 0);
+        }
+        // the last cup of the first player is emptied into its mancala, which ends the game
+        state.setStones(CUPS_NUMBER - 1, 1);
+        state.setStones(CUPS_NUMBER + 1, 2);
+        game.applyState(state);
+        gameRepository.save(game);
+
+        makeFirstMove(game, CUPS_NUMBER);
+
+        final GameDto reloaded = loadDto(game.getId());
+        assertThat(reloaded.getStatus()).isEqualTo(GameStatusDto.WIN);
+        assertThat(reloaded.getBoard().getPits().get(CUPS_NUMBER).getStoneCount()).isEqualTo(1);
+        assertThat(reloaded.getBoard().getPits().get(CUPS_NUMBER + 1).getStoneCount()).isZero();
+        assertThat(reloaded.getBoard().getPits().get(2 * CUPS_NUMBER + 1).getStoneCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void saveMove_gameWrittenSinceLoaded_optimisticLockingFailure() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final Game first = loadGame(game.getId());
+        final Game second = loadGame(game.getId());
+        first.getBoard().makeMove(first.getPlayersGroup().getActivePlayer(), 1);
+        second.getBoard().makeMove(second.getPlayersGroup().getActivePlayer(), 2);
+        transactionTemplate.executeWithoutResult(status -> gameRepository.saveMove(first));
+
+        assertThrows(
+                OptimisticLockingFailureException.class,
+                () -> transactionTemplate.executeWithoutResult(
+                        status -> gameRepository.saveMove(second)
+                )
+        );
+
+        final Game reloaded = loadGame(game.getId());
+        assertThat(reloaded.getVersion()).isEqualTo(1);
+        assertThat(reloaded.toState()).isEqualTo(first.toState());
+    }
+
+    @Test
+    public void saveMoves_oneGameOutdated_onlyItsWriteLeftOut() {
+        final Game outdated = loadGame(saveGame(BoardStorage.PIT_ROWS).getId());
+        final Game current = loadGame(saveGame(BoardStorage.PIT_ROWS).getId());
+        final BoardState outdatedState = outdated.toState();
+        outdated.getBoard().makeMove(outdated.getPlayersGroup().getActivePlayer(), 1);
+        current.getBoard().makeMove(current.getPlayersGroup().getActivePlayer(), 1);
+        final MoveWrite outdatedWrite = MoveWrite.of(outdated);
+        final MoveWrite currentWrite = MoveWrite.of(current);
+        jdbcTemplate.update("update game set version = 5 where id = ?", outdated.getId());
+
+        final List<MoveWrite> rejected = transactionTemplate.execute(
+                status -> gameRepository.saveMoves(List.of(outdatedWrite, currentWrite))
+        );
+
+        assertThat(rejected).containsExactly(outdatedWrite);
+        // committed, nothing of the left out write was sent
+        final Game reloadedOutdated = loadGame(outdated.getId());
+        assertThat(reloadedOutdated.getVersion()).isEqualTo(5);
+        assertThat(reloadedOutdated.toState()).isEqualTo(outdatedState);
+        final Game reloadedCurrent = loadGame(current.getId());
+        assertThat(reloadedCurrent.getVersion()).isEqualTo(1);
+        assertThat(reloadedCurrent.toState()).isEqualTo(current.toState());
+    }
+
+    @Test
+    public void processMove_cachedGameOutdated_playedAgainOnCurrentVersion() {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        transactionTemplate.executeWithoutResult(status -> gameService.getGameById(game.getId()));
+        // written by another instance of the service, the cached game is at version 0
+        jdbcTemplate.update("update game set version = 5 where id = ?", game.getId());
+
+        makeFirstMove(game, 2);
+
+        final Game reloaded = loadGame(game.getId());
+        assertThat(reloaded.getVersion()).isEqualTo(6);
+        assertThat(reloaded.getPlayersGroup().getActivePlayerIndex()).isEqualTo(1);
+        assertThat(gameService.getGameById(game.getId()).getVersion()).isEqualTo(6);
+    }
+
+    private void assertSameStateAfterReload(BoardStorage storage) {
+        final Game game = saveGame(storage);
+        final BoardState expected = game.toState();
+        // the last stone lands in the opponent's cup, so the turn passes
+        expected.playMove(1);
+
+        makeFirstMove(game, 2);
+
+        final BoardState reloaded = transactionTemplate.execute(status -> gameRepository
+                .findPlayableById(game.getId())
+                .orElseThrow()
+                .toState());
+        assertThat(reloaded).isEqualTo(expected);
+        assertThat(reloaded.getActiveSeat()).isEqualTo(1);
+    }
+
+    private int countRows(String table, Long gameId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from " + table + " where game_id = ?", Integer.class, gameId
+        );
+    }
+
+    private Game saveGame(BoardStorage storage) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Board board = Board.createBoardForPlayers(
+                playersGroup,
+                CUPS_NUMBER,
+                STONES_PER_CUP,
+                storage
+        );
+        return gameRepository.save(Game.createGame(playersGroup, board));
+    }
+
+    private Game loadGame(Long gameId) {
+        return transactionTemplate.execute(status -> {
+            final Game game = gameRepository.findPlayableById(gameId).orElseThrow();
+            game.toState();
+            return game;
+        });
+    }
+
+    private GameDto loadDto(Long gameId) {
+        return transactionTemplate.execute(status -> gameRepository
+                .findPlayableById(gameId)
+                .orElseThrow()
+                .toDto());
+    }
+
+    private void makeFirstMove(Game game) {
+        makeFirstMove(game, 1);
+    }
+
+    private void makeFirstMove(Game game, int cupNumber) {
+        gameService.processMove(new GameMove()
+                .gameId(game.getId())
+                .playerId(game.getPlayersGroup().getActivePlayer().getId())
+                .cupNumber(cupNumber));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sm.mancala.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+public class SchemaTest {
+
+    @Test
+    public void schema_firstReleaseDatabase_columnsAddedAndRowsKept() {
+        final DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:first-release;DB_CLOSE_DELAY=-1", "sa", "password"
+        );
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        runScript(dataSource, "schema-first-release.sql");
+        jdbcTemplate.update("insert into players_group (id, active_player_index) values (1, 0)");
+        jdbcTemplate.update("insert into player (id, players_group_id) values (1, 1)");
+        jdbcTemplate.update("insert into board (id, last_cup_index) values (1, 12)");
+        jdbcTemplate.update("insert into game (id, board_id, players_group_id, status) "
+                + "values (1, 1, 1, 'ACTIVE')");
+        jdbcTemplate.update("insert into pit (id, board_index, board_number_for_player, "
+                + "stone_count, board_id, player_id, pit_type) values (1, 0, 1, 6, 1, 1, 'CUP')");
+
+        runScript(dataSource, "schema.sql");
+        // and again, as on every start
+        runScript(dataSource, "schema.sql");
+
+        assertThat(jdbcTemplate.queryForObject("select version from game where id = 1",
+                Long.class)).isZero();
+        final Map<String, Object> board = jdbcTemplate.queryForMap(
+                "select storage, stones from board where id = 1"
+        );
+        assertThat(board.get("storage")).isEqualTo("PIT_ROWS");
+        assertThat(board.get("stones")).isNull();
+        assertThat(jdbcTemplate.queryForObject("select bot from player where id = 1",
+                Boolean.class)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("select stone_count from pit where id = 1",
+                Integer.class)).isEqualTo(6);
+    }
+
+    private static void runScript(DataSource dataSource, String script) {
+        new ResourceDatabasePopulator(new ClassPathResource(script)).execute(dataSource);
+    }
+}
@@ -0,0 +1,34 @@
+package com.sm.mancala.repository;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records the SQL statements Hibernate prepares, registered through
+ * {@code hibernate.session_factory.statement_inspector}.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static long count(String prefix) {
+        return STATEMENTS.stream()
+                .filter(sql -> sql.regionMatches(true, 0, prefix, 0, prefix.length()))
+                .count();
+    }
+}
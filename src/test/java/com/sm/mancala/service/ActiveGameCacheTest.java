@@ -0,0 +1,194 @@
+package com.sm.mancala.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.domain.player.PlayersGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ActiveGameCacheTest {
+
+    private static final long IDLE_TIMEOUT_MS = 1000;
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    public void get_updatedGame_detachedCopyOfSameState() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        final Game game = createGame(1L);
+
+        cache.update(game);
+        final Game cached = cache.get(1L);
+
+        assertThat(cached).isNotSameAs(game);
+        assertThat(cached.toDto()).isEqualTo(game.toDto());
+    }
+
+    @Test
+    public void getDto_updatedGame_sameAsGameDto() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        final Game game = createGame(1L);
+        game.getPlayersGroup().moveToNextPlayer();
+
+        cache.update(game);
+
+        assertThat(cache.getDto(1L)).isEqualTo(game.toDto());
+        assertThat(cache.getDto(2L)).isNull();
+    }
+
+    @Test
+    public void update_withinTransaction_cachedAfterCommit() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(createGame(1L));
+            assertThat(cache.get(1L)).isNull();
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    public void update_noTransaction_cachedRightAway() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+
+        cache.update(createGame(1L));
+
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    public void update_finishedGame_dropped() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        final Game game = createGame(1L);
+        cache.update(game);
+
+        game.setStatus(GameStatus.WIN);
+        cache.update(game);
+        cache.putIfAbsent(game);
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    public void putIfAbsent_newerStateCached_kept() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        final Game loaded = createGame(1L);
+        final Game moved = createGame(1L);
+        moved.getPlayersGroup().moveToNextPlayer();
+        cache.update(moved);
+
+        cache.putIfAbsent(loaded);
+
+        assertThat(cache.get(1L).getPlayersGroup().getActivePlayerIndex()).isEqualTo(1);
+    }
+
+    @Test
+    public void update_newerVersionCached_kept() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        final Game older = createGame(1L);
+        older.setVersion(1);
+        final Game newer = createGame(1L);
+        newer.setVersion(2);
+        newer.getPlayersGroup().moveToNextPlayer();
+        cache.update(newer);
+
+        // committed before the newer one, but its thread got to the cache later
+        cache.update(older);
+
+        assertThat(cache.get(1L).getVersion()).isEqualTo(2);
+        assertThat(cache.get(1L).getPlayersGroup().getActivePlayerIndex()).isEqualTo(1);
+    }
+
+    @Test
+    public void evict_cachedGame_loadedAgain() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        cache.update(createGame(1L));
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void update_overMaxSize_leastRecentlyUsedEvicted() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        cache.update(createGame(1L));
+        cache.update(createGame(2L));
+        cache.get(1L);
+
+        cache.update(createGame(3L));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(3L)).isNotNull();
+    }
+
+    @Test
+    public void get_idleLongerThanTimeout_evicted() {
+        final ActiveGameCache cache = new ActiveGameCache(2, IDLE_TIMEOUT_MS, nanoTime::get);
+        cache.update(createGame(1L));
+        cache.update(createGame(2L));
+
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MS / 2));
+        cache.get(2L);
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(IDLE_TIMEOUT_MS / 2));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void bindTo_hitsMissesAndEvictionsCounted() {
+        final ActiveGameCache cache = new ActiveGameCache(1, IDLE_TIMEOUT_MS, nanoTime::get);
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.update(createGame(1L));
+        cache.get(1L);
+        cache.get(1L);
+        cache.update(createGame(2L));
+        cache.get(1L);
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_sizeZero_nothingCached() {
+        final ActiveGameCache cache = new ActiveGameCache(0, IDLE_TIMEOUT_MS, nanoTime::get);
+
+        cache.update(createGame(1L));
+
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private Game createGame(Long gameId) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Game game = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, 6, 6)
+        );
+        game.setId(gameId);
+        return game;
+    }
+}
@@ -5,17 +5,24 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import com.sm.mancala.ai.SearchResult;
 import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.BoardStorage;
 import com.sm.mancala.domain.game.Game;
 import com.sm.mancala.domain.game.GameMoveResultData;
 import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.domain.game.Hint;
+import com.sm.mancala.domain.game.LegalMoves;
 import com.sm.mancala.domain.pit.Cup;
 import com.sm.mancala.domain.player.Player;
 import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.exception.ConflictException;
 import com.sm.mancala.exception.GameRuleException;
 import com.sm.mancala.exception.NotFoundException;
 import com.sm.mancala.properties.GameProperties;
@@ -25,9 +32,13 @@ import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
 public class GameServiceTest {
@@ -36,6 +47,7 @@ public class GameServiceTest {
     private static final int CUPS_NUMBER = 6;
     private static final int STONES_PER_CUP = 6;
     private static final long GAME_ID = 1;
+    private static final int MOVE_ATTEMPTS = 3;
 
     @Mock
     private GameProperties gameProperties;
@@ -43,6 +55,18 @@ public class GameServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private BotService botService;
+
+    @Mock
+    private ActiveGameCache activeGameCache;
+
+    @Mock
+    private MoveWriter moveWriter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private GameServiceImpl gameService;
 
@@ -50,6 +74,10 @@ public class GameServiceTest {
     public void beforeEach() {
         when(gameProperties.getPlayersNumber()).thenReturn(PLAYERS_NUMBER);
         when(gameProperties.getCupsNumber()).thenReturn(CUPS_NUMBER);
+        when(gameProperties.getBoardStorage()).thenReturn(BoardStorage.PIT_ROWS);
+        when(gameProperties.getMoveAttempts()).thenReturn(MOVE_ATTEMPTS);
+        when(transactionTemplate.execute(any())).thenAnswer(invocationOnMock ->
+                invocationOnMock.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         when(gameRepository.save(any()))
                 .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
     }
@@ -58,13 +86,13 @@ public class GameServiceTest {
     public void createGame_validationFailed_playersNumberIsOdd() {
         assertThrows(
                 GameRuleException.class,
-                () -> gameService.createGame(PLAYERS_NUMBER + 1, STONES_PER_CUP)
+                () -> gameService.createGame(PLAYERS_NUMBER + 1, STONES_PER_CUP, false)
         );
     }
 
     @Test
     public void createGame_successfullyCreated() {
-        final Game game = gameService.createGame(PLAYERS_NUMBER, STONES_PER_CUP);
+        final Game game = gameService.createGame(PLAYERS_NUMBER, STONES_PER_CUP, false);
 
         verify(gameRepository, times(1)).save(any());
 
@@ -73,9 +101,29 @@ public class GameServiceTest {
         assertThat(game.getPlayersGroup()).isNotNull();
     }
 
+    @Test
+    public void createGames_successfullyCreatedInOneSaveAll() {
+        when(gameRepository.saveAll(any()))
+                .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
+
+        final List<Game> games = gameService.createGames(PLAYERS_NUMBER, STONES_PER_CUP, false, 3);
+
+        verify(gameRepository, times(1)).saveAll(any());
+        assertThat(games).hasSize(3)
+                .allMatch(game -> game.getStatus() == GameStatus.ACTIVE);
+    }
+
+    @Test
+    public void createGames_validationFailed_playersNumberIsOdd() {
+        assertThrows(
+                GameRuleException.class,
+                () -> gameService.createGames(PLAYERS_NUMBER + 1, STONES_PER_CUP, false, 3)
+        );
+    }
+
     @Test
     public void getGameById_gameNotFound() {
-        when(gameRepository.findById(any())).thenReturn(Optional.empty());
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.empty());
         assertThrows(
                 NotFoundException.class,
                 () -> gameService.getGameById(any())
@@ -84,7 +132,7 @@ public class GameServiceTest {
 
     @Test
     public void processMove_gameNotFound() {
-        when(gameRepository.findById(any())).thenReturn(Optional.empty());
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.empty());
 
         final GameMove gameMove = new GameMove(GAME_ID, 1L, STONES_PER_CUP);
 
@@ -98,7 +146,7 @@ public class GameServiceTest {
     public void processMove_playerIsNotActive() {
         final int stonesPerCup = 6;
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long inactivePlayerId = 2L;
         final GameMove gameMove = new GameMove()
@@ -111,7 +159,7 @@ public class GameServiceTest {
                 () -> gameService.processMove(gameMove)
         );
 
-        verify(gameRepository, times(0)).save(eq(preparedGame));
+        verify(moveWriter, times(0)).write(eq(preparedGame));
     }
 
     @Test
@@ -120,7 +168,7 @@ public class GameServiceTest {
         final int stonesPerCup = 6;
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
         makeCupEmpty(preparedGame.getPlayersGroup().getActivePlayer(), selectedCupNumber);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final GameMove gameMove = new GameMove()
                 .gameId(GAME_ID)
@@ -132,7 +180,7 @@ public class GameServiceTest {
                 () -> gameService.processMove(gameMove)
         );
 
-        verify(gameRepository, times(0)).save(eq(preparedGame));
+        verify(moveWriter, times(0)).write(eq(preparedGame));
     }
 
     @Test
@@ -140,7 +188,7 @@ public class GameServiceTest {
         final int selectedCupNumber = 1;
         final int stonesPerCup = 6;
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long activePlayerId = preparedGame.getPlayersGroup().getActivePlayer().getId();
         final GameMove gameMove = new GameMove()
@@ -150,7 +198,7 @@ public class GameServiceTest {
 
         final GameMoveResultData moveResultData = gameService.processMove(gameMove);
 
-        verify(gameRepository, times(1)).save(eq(preparedGame));
+        verify(moveWriter, times(1)).write(eq(preparedGame));
 
         final Game gameAfterMove = moveResultData.game();
         assertThat(moveResultData.gameMoveResult().getActivePlayerId()).isEqualTo(activePlayerId);
@@ -165,7 +213,7 @@ public class GameServiceTest {
         final int selectedCupNumber = 2;
         final int stonesPerCup = 6;
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long activePlayerId = preparedGame.getPlayersGroup().getActivePlayer().getId();
         final GameMove gameMove = new GameMove()
@@ -175,7 +223,7 @@ public class GameServiceTest {
 
         final GameMoveResultData moveResultData = gameService.processMove(gameMove);
 
-        verify(gameRepository, times(1)).save(eq(preparedGame));
+        verify(moveWriter, times(1)).write(eq(preparedGame));
 
         final Game gameAfterMove = moveResultData.game();
         assertThat(moveResultData.gameMoveResult().getActivePlayerId()).isNotEqualTo(
@@ -186,13 +234,53 @@ public class GameServiceTest {
         ).isEqualTo(stonesPerCup + 1);
     }
 
+    @Test
+    public void processMove_concurrentMoveWrittenFirst_playedAgainOnReloadedGame() {
+        final Game staleGame = prepareTestGameScenario(6);
+        final Game reloadedGame = prepareTestGameScenario(6);
+        when(gameRepository.findPlayableById(any()))
+                .thenReturn(Optional.of(staleGame))
+                .thenReturn(Optional.of(reloadedGame));
+        doThrow(new OptimisticLockingFailureException("Game changed"))
+                .doNothing()
+                .when(moveWriter).write(any());
+
+        final GameMoveResultData moveResultData = gameService.processMove(new GameMove()
+                .gameId(GAME_ID)
+                .playerId(staleGame.getPlayersGroup().getActivePlayer().getId())
+                .cupNumber(2));
+
+        assertThat(moveResultData.game()).isSameAs(reloadedGame);
+        verify(activeGameCache, times(1)).evict(eq(GAME_ID));
+        verify(moveWriter, times(1)).write(eq(reloadedGame));
+    }
+
+    @Test
+    public void processMove_concurrentMovesKeepWinning_conflict() {
+        when(gameRepository.findPlayableById(any()))
+                .thenAnswer(invocationOnMock -> Optional.of(prepareTestGameScenario(6)));
+        doThrow(new OptimisticLockingFailureException("Game changed"))
+                .when(moveWriter).write(any());
+
+        assertThrows(
+                ConflictException.class,
+                () -> gameService.processMove(new GameMove()
+                        .gameId(GAME_ID)
+                        .playerId(1L)
+                        .cupNumber(2))
+        );
+
+        verify(moveWriter, times(MOVE_ATTEMPTS)).write(any());
+        verify(activeGameCache, times(MOVE_ATTEMPTS)).evict(eq(GAME_ID));
+    }
+
     @Test
     public void processMove_activePlayerChanged_captureDone() {
         final int selectedCupNumber = 1;
         final int stonesPerCup = 3;
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
         makeCupEmpty(preparedGame.getPlayersGroup().getActivePlayer(), 4);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long activePlayerId = preparedGame.getPlayersGroup().getActivePlayer().getId();
         final GameMove gameMove = new GameMove()
@@ -202,7 +290,7 @@ public class GameServiceTest {
 
         final GameMoveResultData moveResultData = gameService.processMove(gameMove);
 
-        verify(gameRepository, times(1)).save(eq(preparedGame));
+        verify(moveWriter, times(1)).write(eq(preparedGame));
 
         final Game gameAfterMove = moveResultData.game();
         assertThat(moveResultData.gameMoveResult().getActivePlayerId()).isNotEqualTo(
@@ -227,7 +315,7 @@ public class GameServiceTest {
         final Game preparedGame = prepareTestGameScenario(stonesPerCup);
         clearAllCupsExceptOne(preparedGame.getPlayersGroup().getActivePlayer(), selectedCupNumber,
                 CUPS_NUMBER);
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long activePlayerId = preparedGame.getPlayersGroup().getActivePlayer().getId();
         final GameMove gameMove = new GameMove()
@@ -237,7 +325,7 @@ public class GameServiceTest {
 
         final GameMoveResultData moveResultData = gameService.processMove(gameMove);
 
-        verify(gameRepository, times(1)).save(eq(preparedGame));
+        verify(moveWriter, times(1)).write(eq(preparedGame));
 
         final Game gameAfterMove = moveResultData.game();
         final Player activePlayerAfterMove = gameAfterMove.getPlayersGroup().getActivePlayer();
@@ -273,7 +361,7 @@ public class GameServiceTest {
                 selectedCupNumber,
                 CUPS_NUMBER
         );
-        when(gameRepository.findById(any())).thenReturn(Optional.of(preparedGame));
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
 
         final Long activePlayerId = preparedGame.getPlayersGroup().getActivePlayer().getId();
         final GameMove gameMove = new GameMove()
@@ -283,7 +371,7 @@ public class GameServiceTest {
 
         final GameMoveResultData moveResultData = gameService.processMove(gameMove);
 
-        verify(gameRepository, times(1)).save(eq(preparedGame));
+        verify(moveWriter, times(1)).write(eq(preparedGame));
 
         final Game gameAfterMove = moveResultData.game();
         final Player activePlayerAfterMove = gameAfterMove.getPlayersGroup().getActivePlayer();
@@ -303,6 +391,125 @@ public class GameServiceTest {
         ).isEqualTo(1);
     }
 
+    @Test
+    public void processMove_processGameFinalResult_sharedFirstPlaceWonByFirstLeader() {
+        final int selectedCupNumber = 6;
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(3);
+        addIdForPlayers(playersGroup);
+        final Game preparedGame = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, CUPS_NUMBER, 1)
+        );
+        preparedGame.setId(GAME_ID);
+        final List<Player> players = playersGroup.getPlayers();
+        clearAllCupsExceptOne(players.get(0), selectedCupNumber, CUPS_NUMBER);
+        clearAllCupsExceptOne(players.get(1), selectedCupNumber, CUPS_NUMBER);
+        clearAllCupsExceptOne(players.get(2), 0, CUPS_NUMBER);
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+
+        final GameMoveResultData moveResultData = gameService.processMove(new GameMove()
+                .gameId(GAME_ID)
+                .playerId(players.get(0).getId())
+                .cupNumber(selectedCupNumber));
+
+        // mancalas end at 1, 1 and 0: not a draw unless all of them are equal
+        assertThat(moveResultData.game().getStatus()).isEqualTo(GameStatus.WIN);
+        assertThat(moveResultData.gameMoveResult().getWinPlayerId())
+                .isEqualTo(players.get(0).getId());
+        assertThat(players.get(1).getMancala().getStoneCount()).isEqualTo(1);
+        assertThat(players.get(2).getMancala().getStoneCount()).isZero();
+    }
+
+    @Test
+    public void createGame_botOpponent_lastPlayerIsBot() {
+        final Game game = gameService.createGame(PLAYERS_NUMBER, STONES_PER_CUP, true);
+
+        final List<Player> players = game.getPlayersGroup().getPlayers();
+        assertThat(players.get(0).isBot()).isFalse();
+        assertThat(players.get(PLAYERS_NUMBER - 1).isBot()).isTrue();
+    }
+
+    @Test
+    public void processMove_botOpponent_botReplyPlayedBeforeWriteTransaction() {
+        final int stonesPerCup = 6;
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(PLAYERS_NUMBER, true);
+        addIdForPlayers(playersGroup);
+        final Game preparedGame = Game.createGame(
+                playersGroup,
+                Board.createBoardForPlayers(playersGroup, CUPS_NUMBER, stonesPerCup)
+        );
+        preparedGame.setId(GAME_ID);
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+        // bot's cup 2 does not end in its mancala, so the turn goes back to the human
+        when(botService.chooseMove(any())).thenReturn(new SearchResult(2, 0, 1, 1));
+
+        final Player human = playersGroup.getActivePlayer();
+        final GameMove gameMove = new GameMove()
+                .gameId(GAME_ID)
+                .playerId(human.getId())
+                .cupNumber(2);
+
+        final GameMoveResultData moveResultData = gameService.processMove(gameMove);
+
+        verify(botService, times(1)).chooseMove(any());
+        // no connection is held during the bot's search
+        final InOrder inOrder = inOrder(botService, transactionTemplate, moveWriter);
+        inOrder.verify(botService).chooseMove(any());
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(moveWriter).write(eq(preparedGame));
+        assertThat(moveResultData.gameMoveResult().getActivePlayerId()).isEqualTo(human.getId());
+        final Player bot = playersGroup.getPlayers().get(1);
+        assertThat(bot.getCupByNumber(2).isEmpty()).isTrue();
+        assertThat(bot.getMancala().getStoneCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getLegalMoves_nonEmptyCupsOfActivePlayer() {
+        final Game preparedGame = prepareTestGameScenario(STONES_PER_CUP);
+        final Player activePlayer = preparedGame.getPlayersGroup().getActivePlayer();
+        makeCupEmpty(activePlayer, 2);
+        makeCupEmpty(activePlayer, 5);
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+
+        final LegalMoves legalMoves = gameService.getLegalMoves(GAME_ID);
+
+        assertThat(legalMoves.activePlayerId()).isEqualTo(activePlayer.getId());
+        assertThat(legalMoves.cupNumbers()).containsExactly(1, 3, 4, 6);
+    }
+
+    @Test
+    public void getLegalMoves_finishedGame_noMoves() {
+        final Game preparedGame = prepareTestGameScenario(STONES_PER_CUP);
+        preparedGame.setStatus(GameStatus.WIN);
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+
+        final LegalMoves legalMoves = gameService.getLegalMoves(GAME_ID);
+
+        assertThat(legalMoves.cupNumbers()).isEmpty();
+    }
+
+    @Test
+    public void getHint_activeGame_suggestionForActivePlayer() {
+        final Game preparedGame = prepareTestGameScenario(STONES_PER_CUP);
+        final Player activePlayer = preparedGame.getPlayersGroup().getActivePlayer();
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+        when(botService.suggestMove(any())).thenReturn(new SearchResult(4, 35, 12, 1000));
+
+        final Hint hint = gameService.getHint(GAME_ID);
+
+        assertThat(hint).isEqualTo(new Hint(GAME_ID, activePlayer.getId(), 4, 35, 12));
+        verify(botService, times(1)).suggestMove(eq(preparedGame.toState()));
+    }
+
+    @Test
+    public void getHint_finishedGame_rejected() {
+        final Game preparedGame = prepareTestGameScenario(STONES_PER_CUP);
+        preparedGame.setStatus(GameStatus.DRAW);
+        when(gameRepository.findPlayableById(any())).thenReturn(Optional.of(preparedGame));
+
+        assertThrows(GameRuleException.class, () -> gameService.getHint(GAME_ID));
+    }
+
     private Game prepareTestGameScenario(int stonesPerCup) {
         final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(PLAYERS_NUMBER);
         addIdForPlayers(playersGroup);
@@ -0,0 +1,24 @@
+package com.sm.mancala.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sm.mancala.ai.SearchResult;
+import org.junit.jupiter.api.Test;
+
+public class HintCacheTest {
+
+    @Test
+    public void put_overMaxSize_leastRecentlyUsedEvicted() {
+        final HintCache cache = new HintCache(2);
+        cache.put(1L, new SearchResult(1, 0, 1, 1));
+        cache.put(2L, new SearchResult(2, 0, 1, 1));
+        cache.get(1L);
+
+        cache.put(3L, new SearchResult(3, 0, 1, 1));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(1L).cupNumber()).isEqualTo(1);
+        assertThat(cache.get(3L).cupNumber()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,375 @@
+package com.sm.mancala.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sm.mancala.domain.engine.BoardState;
+import com.sm.mancala.domain.game.Board;
+import com.sm.mancala.domain.game.BoardStorage;
+import com.sm.mancala.domain.game.Game;
+import com.sm.mancala.domain.game.GameStatus;
+import com.sm.mancala.domain.game.LegalMoves;
+import com.sm.mancala.domain.player.PlayersGroup;
+import com.sm.mancala.exception.GameRuleException;
+import com.sm.mancala.properties.GameProperties;
+import com.sm.mancala.repository.GameRepository;
+import com.sm.mancala.repository.MoveWrite;
+import com.sm.mancala.wal.WriteAheadLog;
+import com.sm.mancala.web.model.GameMove;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+public class WalMoveWriterTest {
+
+    private static final int CUPS_NUMBER = 6;
+    private static final int STONES_PER_CUP = 6;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameProperties gameProperties;
+
+    @Autowired
+    private BotService botService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ActiveGameCache activeGameCache;
+
+    @TempDir
+    private Path walDirectory;
+
+    private WalMoveWriter moveWriter;
+
+    @AfterEach
+    public void afterEach() throws IOException {
+        if (moveWriter != null) {
+            moveWriter.shutdown();
+        }
+    }
+
+    @Test
+    public void processMove_movesLoggedAndWrittenBehind_gameLoadedInLatestState() {
+        moveWriter = startMoveWriter();
+        final GameService gameService = createGameService(moveWriter);
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expected = game.toState();
+
+        for (int i = 0; i < 10; i++) {
+            final LegalMoves legalMoves = transactionTemplate.execute(
+                    status -> gameService.getLegalMoves(game.getId())
+            );
+            final int cupNumber = legalMoves.cupNumbers()[0];
+            expected.playMove(expected.cupIndex(expected.getActiveSeat(), cupNumber));
+            transactionTemplate.executeWithoutResult(status -> gameService.processMove(
+                    new GameMove()
+                            .gameId(game.getId())
+                            .playerId(legalMoves.activePlayerId())
+                            .cupNumber(cupNumber)
+            ));
+        }
+
+        moveWriter.awaitWritten(game.getId());
+        final BoardState reloaded = loadState(game.getId());
+        assertThat(reloaded).isEqualTo(expected);
+        assertThat(reloaded.getActiveSeat()).isEqualTo(expected.getActiveSeat());
+    }
+
+    @Test
+    public void write_gameLoggedAtNewerVersion_rejectedBeforeLogged() {
+        moveWriter = startMoveWriter();
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final Game first = loadGame(game.getId());
+        final Game second = loadGame(game.getId());
+        first.getBoard().makeMove(first.getPlayersGroup().getActivePlayer(), 1);
+        second.getBoard().makeMove(second.getPlayersGroup().getActivePlayer(), 2);
+        moveWriter.write(first);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> moveWriter.write(second));
+
+        moveWriter.awaitWritten(game.getId());
+        assertThat(loadState(game.getId())).isEqualTo(first.toState());
+        assertThat(loadGame(game.getId()).getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    public void write_loggedMovesApplied_versionDroppedAndCheckedInDatabase() {
+        moveWriter = startMoveWriter();
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final Game first = loadGame(game.getId());
+        final Game outdated = loadGame(game.getId());
+        first.getBoard().makeMove(first.getPlayersGroup().getActivePlayer(), 1);
+        moveWriter.write(first);
+        moveWriter.awaitWritten(game.getId());
+
+        assertThat(moveWriter.getLoggedGamesNumber()).isZero();
+
+        outdated.getBoard().makeMove(outdated.getPlayersGroup().getActivePlayer(), 2);
+        assertThrows(OptimisticLockingFailureException.class, () -> moveWriter.write(outdated));
+
+        final Game current = loadGame(game.getId());
+        current.getBoard().makeMove(current.getPlayersGroup().getActivePlayer(), 2);
+        moveWriter.write(current);
+        moveWriter.awaitWritten(game.getId());
+        assertThat(loadGame(game.getId()).getVersion()).isEqualTo(2);
+        assertThat(moveWriter.getLoggedGamesNumber()).isZero();
+    }
+
+    @Test
+    public void start_entriesAfterCheckpoint_appliedToDatabase() throws IOException {
+        final Game appliedGame = saveGame(BoardStorage.PIT_ROWS);
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expectedApplied = appliedGame.toState();
+        final BoardState expected = game.toState();
+        expected.playMove(1);
+        // logged before a crash as 7 and 8, only the first one was applied
+        logMoves(6, moveOnFirstCup(appliedGame.getId()), moveOnFirstCup(game.getId()));
+        setCheckpoint(7L);
+
+        moveWriter = startMoveWriter();
+
+        assertThat(loadState(appliedGame.getId())).isEqualTo(expectedApplied);
+        assertThat(loadState(game.getId())).isEqualTo(expected);
+        assertThat(getCheckpoint()).isEqualTo(8L);
+    }
+
+    @Test
+    public void start_entryFailingOnItsOwn_deadLetteredAndOtherGamesApplied() throws IOException {
+        final Game before = saveGame(BoardStorage.PIT_ROWS);
+        final Game failing = saveGame(BoardStorage.MOVE_LOG);
+        final Game after = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expectedBefore = before.toState();
+        expectedBefore.playMove(1);
+        final BoardState expectedAfter = after.toState();
+        expectedAfter.playMove(1);
+        logMoves(6, moveOnFirstCup(before.getId()), moveOnFirstCup(failing.getId()),
+                moveOnFirstCup(after.getId()));
+        setCheckpoint(6L);
+        // the logged move of the failing game takes a sequence number written already
+        jdbcTemplate.update("insert into game_move (game_id, seq, player_id, cup_number) "
+                + "values (?, 1, ?, 2)", failing.getId(), failing.getPlayersGroup()
+                .getActivePlayer().getId());
+
+        moveWriter = startMoveWriter();
+
+        assertThat(loadState(before.getId())).isEqualTo(expectedBefore);
+        assertThat(loadState(after.getId())).isEqualTo(expectedAfter);
+        assertThat(loadGame(failing.getId()).getStatus()).isEqualTo(GameStatus.ERRORED);
+        assertThat(getDeadLetterLsns(failing.getId())).containsExactly(8L);
+        assertThat(getCheckpoint()).isEqualTo(9L);
+    }
+
+    @Test
+    public void processMove_gameChangedBehindLog_rejectedBeforeLoggedAndPlayedOnReload() {
+        moveWriter = startMoveWriter();
+        final GameService gameService = createGameService(moveWriter, activeGameCache);
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        // cached at version 0, then written behind the log's back
+        final LegalMoves legalMoves = gameService.getLegalMoves(game.getId());
+        jdbcTemplate.update("update game set version = 5 where id = ?", game.getId());
+
+        gameService.processMove(new GameMove()
+                .gameId(game.getId())
+                .playerId(legalMoves.activePlayerId())
+                .cupNumber(legalMoves.cupNumbers()[0]));
+        moveWriter.awaitWritten(game.getId());
+
+        assertThat(getDeadLetterLsns(game.getId())).isEmpty();
+        final Game played = loadGame(game.getId());
+        assertThat(played.getStatus()).isEqualTo(GameStatus.ACTIVE);
+        assertThat(played.getVersion()).isEqualTo(6);
+    }
+
+    @Test
+    public void start_loggedMoveOnChangedGame_deadLetteredAndGameFailed() throws IOException {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        logMoves(0, moveOnFirstCup(game.getId()));
+        setCheckpoint(0L);
+        // written behind the log's back after the move was logged
+        jdbcTemplate.update("update game set version = 5 where id = ?", game.getId());
+
+        moveWriter = startMoveWriter();
+        final GameService gameService = createGameService(moveWriter, activeGameCache);
+
+        assertThat(getDeadLetterLsns(game.getId())).containsExactly(1L);
+        final Game failed = loadGame(game.getId());
+        assertThat(failed.getStatus()).isEqualTo(GameStatus.ERRORED);
+        assertThat(failed.toState()).isEqualTo(game.toState());
+        assertThrows(GameRuleException.class, () -> gameService.processMove(new GameMove()
+                .gameId(game.getId())
+                .playerId(game.getPlayersGroup().getActivePlayer().getId())
+                .cupNumber(1)));
+    }
+
+    @Test
+    public void start_noCheckpointWithLoggedEntries_startFails() throws IOException {
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expected = game.toState();
+        logMoves(0, moveOnFirstCup(game.getId()));
+        setCheckpoint(null);
+        moveWriter = createMoveWriter();
+
+        assertThrows(IllegalStateException.class, moveWriter::start);
+
+        assertThat(loadState(game.getId())).isEqualTo(expected);
+        assertThat(getCheckpoint()).isNull();
+    }
+
+    @Test
+    public void start_restartedOnSameDatabaseAndLog_loggedMovesKept() throws IOException {
+        moveWriter = startMoveWriter();
+        final GameService gameService = createGameService(moveWriter);
+        final Game game = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expected = game.toState();
+        for (int i = 0; i < 3; i++) {
+            final LegalMoves legalMoves = gameService.getLegalMoves(game.getId());
+            final int cupNumber = legalMoves.cupNumbers()[0];
+            expected.playMove(expected.cupIndex(expected.getActiveSeat(), cupNumber));
+            gameService.processMove(new GameMove()
+                    .gameId(game.getId())
+                    .playerId(legalMoves.activePlayerId())
+                    .cupNumber(cupNumber));
+        }
+        moveWriter.shutdown();
+        final long checkpoint = getCheckpoint();
+        // acknowledged, then the process crashed before applying it
+        final Game crashedGame = saveGame(BoardStorage.PIT_ROWS);
+        final BoardState expectedCrashed = crashedGame.toState();
+        expectedCrashed.playMove(1);
+        logMoves(checkpoint, moveOnFirstCup(crashedGame.getId()));
+
+        // the schema script runs again with the next start
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        moveWriter = startMoveWriter();
+
+        assertThat(loadState(game.getId())).isEqualTo(expected);
+        assertThat(loadState(crashedGame.getId())).isEqualTo(expectedCrashed);
+        assertThat(getCheckpoint()).isEqualTo(checkpoint + 1);
+    }
+
+    private WalMoveWriter startMoveWriter() {
+        final WalMoveWriter walMoveWriter = createMoveWriter();
+        walMoveWriter.start();
+        return walMoveWriter;
+    }
+
+    private WalMoveWriter createMoveWriter() {
+        final GameProperties.Wal walProperties = new GameProperties.Wal();
+        walProperties.setDirectory(walDirectory.toString());
+        return new WalMoveWriter(
+                gameRepository,
+                activeGameCache,
+                jdbcTemplate,
+                transactionTemplate,
+                walProperties
+        );
+    }
+
+    // without the cache every read loads the game, after waiting for its logged moves
+    private GameService createGameService(MoveWriter writer) {
+        return createGameService(writer, new ActiveGameCache(0, 60_000, System::nanoTime));
+    }
+
+    private GameService createGameService(MoveWriter writer, ActiveGameCache cache) {
+        return new GameServiceImpl(
+                gameRepository,
+                gameProperties,
+                botService,
+                cache,
+                writer,
+                transactionTemplate
+        );
+    }
+
+    private MoveWrite moveOnFirstCup(Long gameId) {
+        return transactionTemplate.execute(status -> {
+            final Game game = gameRepository.findPlayableById(gameId).orElseThrow();
+            final PlayersGroup playersGroup = game.getPlayersGroup();
+            game.getBoard().makeMove(playersGroup.getActivePlayer(), 1);
+            playersGroup.moveToNextPlayer();
+            return MoveWrite.of(game);
+        });
+    }
+
+    private void logMoves(long lastAppliedLsn, MoveWrite... writes) throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(
+                walDirectory.resolve(WalMoveWriter.LOG_FILE_NAME)
+        )) {
+            log.start(lastAppliedLsn, entries -> {
+            });
+            for (final MoveWrite write : writes) {
+                log.append(write.toBytes());
+            }
+        }
+    }
+
+    private void setCheckpoint(Long lsn) {
+        jdbcTemplate.update("delete from wal_checkpoint");
+        if (lsn != null) {
+            jdbcTemplate.update("insert into wal_checkpoint (id, lsn) values (1, ?)", lsn);
+        }
+    }
+
+    private Long getCheckpoint() {
+        return jdbcTemplate.queryForList("select lsn from wal_checkpoint where id = 1", Long.class)
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<Long> getDeadLetterLsns(Long gameId) {
+        return jdbcTemplate.queryForList(
+                "select lsn from wal_dead_letter where game_id = ? order by lsn",
+                Long.class,
+                gameId
+        );
+    }
+
+    private Game loadGame(Long gameId) {
+        return transactionTemplate.execute(status -> {
+            final Game game = gameRepository.findPlayableById(gameId).orElseThrow();
+            game.toState();
+            return game;
+        });
+    }
+
+    private BoardState loadState(Long gameId) {
+        return transactionTemplate.execute(status -> gameRepository
+                .findPlayableById(gameId)
+                .orElseThrow()
+                .toState());
+    }
+
+    private Game saveGame(BoardStorage storage) {
+        final PlayersGroup playersGroup = PlayersGroup.createPlayersGroup(2);
+        final Board board = Board.createBoardForPlayers(
+                playersGroup,
+                CUPS_NUMBER,
+                STONES_PER_CUP,
+                storage
+        );
+        return gameRepository.save(Game.createGame(playersGroup, board));
+    }
+}
@@ -0,0 +1,55 @@
+package com.sm.mancala.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sm.mancala.domain.engine.BoardState;
+import org.junit.jupiter.api.Test;
+
+public class PerftTest {
+
+    // perft(n) of the standard 2 players, 6 cups, 4 stones game; update only on purpose
+    private static final long[] STANDARD_GAME_COUNTS = {
+            1, 6, 35, 185, 942, 4_690, 23_233, 114_430, 563_055
+    };
+
+    private static final long[] THREE_PLAYERS_GAME_COUNTS = {1, 4, 15, 56, 195, 629, 1_993};
+
+    @Test
+    public void count_standardGame_matchesFixtures() {
+        final BoardState root = Perft.initialPosition(2, 6, 4);
+
+        for (int depth = 0; depth < STANDARD_GAME_COUNTS.length; depth++) {
+            assertThat(new Perft(root, depth).count())
+                    .as("perft(%d)", depth)
+                    .isEqualTo(STANDARD_GAME_COUNTS[depth]);
+        }
+    }
+
+    @Test
+    public void count_threePlayersGame_matchesFixtures() {
+        final BoardState root = Perft.initialPosition(3, 4, 3);
+
+        for (int depth = 0; depth < THREE_PLAYERS_GAME_COUNTS.length; depth++) {
+            assertThat(new Perft(root, depth).count())
+                    .as("perft(%d)", depth)
+                    .isEqualTo(THREE_PLAYERS_GAME_COUNTS[depth]);
+        }
+    }
+
+    @Test
+    public void count_extraTurnCountedAsSameSeatMove() {
+        // cup 3 ends in the mancala: 5 more moves of the same seat instead of 6 of the opponent
+        final BoardState root = Perft.initialPosition(2, 6, 4);
+
+        assertThat(new Perft(root, 2).count()).isEqualTo(5 * 6 + 5);
+    }
+
+    @Test
+    public void count_finishedGame_noSequences() {
+        final BoardState root = Perft.initialPosition(2, 6, 4);
+        root.collectRemainingStones();
+
+        assertThat(new Perft(root, 0).count()).isEqualTo(1);
+        assertThat(new Perft(root, 3).count()).isZero();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sm.mancala.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class SelfPlaySimulatorTest {
+
+    @Test
+    public void run_everyGameCounted() throws InterruptedException {
+        final SimulationOptions options = new SimulationOptions(
+                2, 6, 4, 2_001, 3, List.of("random", "greedy")
+        );
+
+        final SimulationStats stats = new SelfPlaySimulator(options).run();
+
+        assertThat(stats.getGames()).isEqualTo(2_001);
+        assertThat(stats.getWins(0) + stats.getWins(1) + stats.getDraws()).isEqualTo(2_001);
+        assertThat(stats.getLengthPercentile(1.0)).isGreaterThanOrEqualTo(
+                stats.getLengthPercentile(0.5));
+        assertThat(stats.getMeanLength()).isPositive();
+    }
+
+    @Test
+    public void run_greedyBeatsRandom() throws InterruptedException {
+        final SimulationOptions options = new SimulationOptions(
+                2, 6, 4, 2_000, 2, List.of("random", "greedy")
+        );
+
+        final SimulationStats stats = new SelfPlaySimulator(options).run();
+
+        assertThat(stats.getWins(1)).isGreaterThan(stats.getWins(0));
+    }
+
+    @Test
+    public void run_searchAndMorePlayers_gamesFinish() throws InterruptedException {
+        final SimulationOptions options = new SimulationOptions(
+                3, 4, 3, 30, 2, List.of("search:2", "random", "greedy")
+        );
+
+        final SimulationStats stats = new SelfPlaySimulator(options).run();
+
+        assertThat(stats.getGames()).isEqualTo(30);
+    }
+
+    @Test
+    public void parse_optionsApplied() {
+        final SimulationOptions options = SimulationOptions.parse(new String[]{
+                "--games=500", "--threads=2", "--stones=6", "--policies=greedy,search:4"
+        });
+
+        assertThat(options.games()).isEqualTo(500);
+        assertThat(options.threads()).isEqualTo(2);
+        assertThat(options.stonesPerCup()).isEqualTo(6);
+        assertThat(options.policies()).containsExactly("greedy", "search:4");
+    }
+
+    @Test
+    public void parse_policiesNotMatchingPlayers_rejected() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SimulationOptions.parse(new String[]{"--players=3"})
+        );
+    }
+
+    @Test
+    public void parse_unknownPolicy_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> Policies.parse("perfect"));
+    }
+}
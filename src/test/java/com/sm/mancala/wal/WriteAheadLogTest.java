@@ -0,0 +1,345 @@
+package com.sm.mancala.wal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WriteAheadLogTest {
+
+    // length, LSN and CRC around every payload
+    private static final int ENTRY_OVERHEAD = 16;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void append_reopened_entriesRecoveredInOrder() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(0, entries -> {
+            });
+            assertThat(log.append(bytes("first"))).isEqualTo(1);
+            assertThat(log.append(bytes("second"))).isEqualTo(2);
+        }
+
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries())
+                    .extracting(WriteAheadLog.Entry::lsn)
+                    .containsExactly(1L, 2L);
+            assertThat(log.getRecoveredEntries().get(1).payload()).isEqualTo(bytes("second"));
+
+            log.start(0, entries -> {
+            });
+            assertThat(log.append(bytes("third"))).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void open_tornLastEntry_logCutAfterLastWholeEntry() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        appendAll(file, "first", "second");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries())
+                    .extracting(WriteAheadLog.Entry::lsn)
+                    .containsExactly(1L);
+            assertThat(Files.size(file)).isEqualTo(ENTRY_OVERHEAD + "first".length());
+
+            log.start(0, entries -> {
+            });
+            assertThat(log.append(bytes("second"))).isEqualTo(2);
+        }
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries()).hasSize(2);
+        }
+    }
+
+    @Test
+    public void open_corruptedEntry_logCutBeforeIt() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        appendAll(file, "first", "second", "third");
+        final byte[] content = Files.readAllBytes(file);
+        final int secondPayloadEnd = ENTRY_OVERHEAD + "first".length()
+                + Integer.BYTES + Long.BYTES + "second".length();
+        content[secondPayloadEnd - 1] ^= 1;
+        Files.write(file, content);
+
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries())
+                    .extracting(WriteAheadLog.Entry::lsn)
+                    .containsExactly(1L);
+        }
+    }
+
+    @Test
+    public void append_concurrentAppends_syncedTogether() throws Exception {
+        final Path file = directory.resolve("test.wal");
+        final int appendsNumber = 20;
+        final CountDownLatch firstSyncHeld = new CountDownLatch(1);
+        final AtomicInteger groupsNumber = new AtomicInteger();
+        final List<Long> syncedLsns = new ArrayList<>();
+
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(0, entries -> {
+                if (groupsNumber.incrementAndGet() == 1) {
+                    awaitQuietly(firstSyncHeld);
+                }
+                entries.forEach(entry -> syncedLsns.add(entry.lsn()));
+            });
+            final Thread first = new Thread(() -> log.append(bytes("first")));
+            first.start();
+            awaitWaiting(List.of(first));
+
+            // these queue up while the first group is being synced
+            final List<Thread> appenders = new ArrayList<>();
+            for (int i = 0; i < appendsNumber; i++) {
+                final Thread appender = new Thread(() -> log.append(bytes("next")));
+                appenders.add(appender);
+                appender.start();
+            }
+            awaitWaiting(appenders);
+            firstSyncHeld.countDown();
+            first.join();
+            for (final Thread appender : appenders) {
+                appender.join();
+            }
+
+            assertThat(log.getSyncsNumber()).isEqualTo(2);
+        }
+        assertThat(groupsNumber.get()).isEqualTo(2);
+        assertThat(syncedLsns).hasSize(appendsNumber + 1).isSorted();
+    }
+
+    @Test
+    public void start_minLsnAboveRecovered_lsnsContinueFromMinLsn() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        appendAll(file, "first");
+
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(10, entries -> {
+            });
+            assertThat(log.append(bytes("second"))).isEqualTo(11);
+        }
+    }
+
+    @Test
+    public void truncateIfApplied_allEntriesApplied_logEmptied() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(0, entries -> {
+            });
+            log.append(bytes("first"));
+            log.append(bytes("second"));
+
+            assertThat(log.truncateIfApplied(1, 0)).isFalse();
+            assertThat(log.truncateIfApplied(2, Files.size(file) + 1)).isFalse();
+            assertThat(log.truncateIfApplied(2, 0)).isTrue();
+            assertThat(Files.size(file)).isZero();
+
+            assertThat(log.append(bytes("third"))).isEqualTo(3);
+        }
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries())
+                    .extracting(WriteAheadLog.Entry::lsn)
+                    .containsExactly(3L);
+        }
+    }
+
+    @Test
+    public void append_syncFailed_groupCutOffAndLaterAppendsRejected() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        final FailingChannel channel = new FailingChannel(file);
+        try (WriteAheadLog log = new WriteAheadLog(channel)) {
+            log.start(0, entries -> {
+            });
+            log.append(bytes("first"));
+
+            channel.failForce = true;
+            assertThrows(UncheckedIOException.class, () -> log.append(bytes("second")));
+            channel.failForce = false;
+            assertThrows(UncheckedIOException.class, () -> log.append(bytes("third")));
+        }
+
+        assertThat(Files.size(file)).isEqualTo(ENTRY_OVERHEAD + "first".length());
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries())
+                    .extracting(WriteAheadLog.Entry::lsn)
+                    .containsExactly(1L);
+        }
+    }
+
+    @Test
+    public void append_syncListenerFails_entriesStillAppended() throws IOException {
+        final Path file = directory.resolve("test.wal");
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(0, entries -> {
+                throw new IllegalStateException("listener failed");
+            });
+
+            assertThat(log.append(bytes("first"))).isEqualTo(1);
+            assertThat(log.append(bytes("second"))).isEqualTo(2);
+        }
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            assertThat(log.getRecoveredEntries()).hasSize(2);
+        }
+    }
+
+    private static void appendAll(Path file, String... payloads) throws IOException {
+        try (WriteAheadLog log = new WriteAheadLog(file)) {
+            log.start(0, entries -> {
+            });
+            for (final String payload : payloads) {
+                log.append(bytes(payload));
+            }
+        }
+    }
+
+    // appending threads park until their group is synced
+    private static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // file channel whose fsync fails on demand, after the bytes are written
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+
+        private volatile boolean failForce;
+
+        private FailingChannel(Path file) throws IOException {
+            this.delegate = FileChannel.open(
+                    file,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.READ,
+                    StandardOpenOption.WRITE
+            );
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("fsync failed");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target)
+                throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count)
+                throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}